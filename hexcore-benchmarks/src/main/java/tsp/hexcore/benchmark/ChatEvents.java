@@ -0,0 +1,21 @@
+package tsp.hexcore.benchmark;
+
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+
+import java.util.Set;
+
+/**
+ * Creates {@link AsyncPlayerChatEvent}s without a server, so the chat path can be benchmarked headless.
+ * The events have no player and no recipients, neither of which the input registry reads.
+ *
+ * @author TheSilentPro (Silent)
+ */
+final class ChatEvents {
+
+    private ChatEvents() {}
+
+    static AsyncPlayerChatEvent create(String message) {
+        return new AsyncPlayerChatEvent(true, null, message, Set.of());
+    }
+
+}
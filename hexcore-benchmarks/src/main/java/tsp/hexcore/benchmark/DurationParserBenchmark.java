@@ -0,0 +1,64 @@
+package tsp.hexcore.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tsp.hexcore.util.DurationParser;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link DurationParser} on typical and long adversarial input.
+ *
+ * @author TheSilentPro (Silent)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DurationParserBenchmark {
+
+    private String typical;
+    private String longUnits;
+    private String repeated;
+    private String invalidUnits;
+
+    @Setup
+    public void setup() {
+        typical = "1d 2h 30m";
+        longUnits = "1 week 2 days 3 hours 4 minutes 5 seconds 6 milliseconds";
+        repeated = "1d 2h 30m ".repeat(1_000);
+        invalidUnits = "1xyzxyzxyz ".repeat(1_000);
+    }
+
+    @Benchmark
+    public Duration typical() {
+        return DurationParser.parse(typical);
+    }
+
+    @Benchmark
+    public Duration longUnits() {
+        return DurationParser.parse(longUnits);
+    }
+
+    @Benchmark
+    public Duration repeated() {
+        return DurationParser.parse(repeated);
+    }
+
+    @Benchmark
+    public Duration invalidUnits() {
+        return DurationParser.parse(invalidUnits);
+    }
+
+}
@@ -0,0 +1,73 @@
+package tsp.hexcore.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tsp.hexcore.input.Input;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.registry.InputRegistry;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks creating an {@link Input} the way plugins do, and registering it.
+ *
+ * @author TheSilentPro (Silent)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputBenchmark {
+
+    private InputRegistry registry;
+    private InputRegistry expiringRegistry;
+    private UUID id;
+    private String handled;
+
+    @Setup
+    public void setup() {
+        InputParserRegistry parserRegistry = InputParserRegistry.newRegistry().registerDefaults();
+        registry = InputRegistry.newRegistry(parserRegistry);
+        expiringRegistry = InputRegistry.builder(parserRegistry).expiration().build();
+        id = UUID.randomUUID();
+    }
+
+    @Benchmark
+    public Input<String> create() {
+        return Input.await(id, String.class)
+                .until(Duration.ofSeconds(30))
+                .then(value -> handled = value)
+                .mismatch(value -> handled = null);
+    }
+
+    /**
+     * Registers an input and cancels it, so the registry does not grow.
+     */
+    @Benchmark
+    public int register() {
+        create().register(registry);
+        return registry.cancel(id);
+    }
+
+    /**
+     * Also schedules and cancels the deadline of the input.
+     */
+    @Benchmark
+    public int registerExpiring() {
+        create().register(expiringRegistry);
+        return expiringRegistry.cancel(id);
+    }
+
+}
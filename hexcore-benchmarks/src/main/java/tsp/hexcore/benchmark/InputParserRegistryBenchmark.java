@@ -0,0 +1,59 @@
+package tsp.hexcore.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tsp.hexcore.input.parser.InputParser;
+import tsp.hexcore.input.parser.InputParserRegistry;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the parser lookups done for every message, on registered, resolved and unknown types.
+ *
+ * @author TheSilentPro (Silent)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputParserRegistryBenchmark {
+
+    private InputParserRegistry registry;
+
+    @Setup
+    public void setup() {
+        registry = InputParserRegistry.newRegistry().registerDefaults();
+    }
+
+    @Benchmark
+    public Optional<InputParser<Integer>> findRegistered() {
+        return registry.find(Integer.class);
+    }
+
+    @Benchmark
+    public Optional<InputParser<TimeUnit>> findEnum() {
+        return registry.find(TimeUnit.class);
+    }
+
+    @Benchmark
+    public Optional<InputParser<Thread>> findUnknown() {
+        return registry.find(Thread.class);
+    }
+
+    @Benchmark
+    public Optional<InputParser<Integer>> findChain() {
+        return registry.findChain(Integer.class);
+    }
+
+}
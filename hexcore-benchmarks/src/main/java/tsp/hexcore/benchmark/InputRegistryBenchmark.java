@@ -0,0 +1,94 @@
+package tsp.hexcore.benchmark;
+
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tsp.hexcore.input.Input;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.registry.InputRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link InputRegistry#process(UUID, String, AsyncPlayerChatEvent)}, the work done per chat message.
+ * Other players await inputs in the background, so the registry is as full as on a busy server.
+ * Apart from {@link #miss()}, each invocation registers an input and answers it, as the answer consumes it.
+ *
+ * @author TheSilentPro (Silent)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputRegistryBenchmark {
+
+    @Param({"0", "1000"})
+    private int waiting;
+
+    private InputRegistry registry;
+    private UUID id;
+    private UUID absent;
+    private Input<Integer> input;
+    private Input<Integer> expiring;
+    private AsyncPlayerChatEvent number;
+    private AsyncPlayerChatEvent text;
+    private int handled;
+
+    @Setup
+    public void setup() {
+        registry = InputRegistry.newRegistry(InputParserRegistry.newRegistry().registerDefaults());
+        for (int i = 0; i < waiting; i++) {
+            Input.await(UUID.randomUUID(), String.class).register(registry);
+        }
+
+        id = UUID.randomUUID();
+        absent = UUID.randomUUID();
+        // Registered again on every invocation, which is allowed once the previous registration was answered
+        input = Input.await(id, Integer.class).then(value -> handled += value);
+        expiring = Input.await(id, Integer.class)
+                .until(Duration.ofSeconds(1))
+                .timestamp(Instant.EPOCH)
+                .then(value -> handled += value);
+        number = ChatEvents.create("42");
+        text = ChatEvents.create("hello there");
+    }
+
+    @Benchmark
+    public int hit() {
+        registry.register(input);
+        registry.process(id, number.getMessage(), number);
+        return handled;
+    }
+
+    @Benchmark
+    public void miss() {
+        registry.process(absent, text.getMessage(), text);
+    }
+
+    @Benchmark
+    public void mismatch() {
+        registry.register(input);
+        registry.process(id, text.getMessage(), text);
+    }
+
+    @Benchmark
+    public void expired() {
+        registry.register(expiring);
+        registry.process(id, number.getMessage(), number);
+    }
+
+}
@@ -0,0 +1,63 @@
+package tsp.hexcore.benchmark;
+
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tsp.hexcore.input.parser.InputParser;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.parser.LiteralParser;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks parsing words with a {@link LiteralParser}, against {@link Material#matchMaterial(String)}.
+ *
+ * @author TheSilentPro (Silent)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LiteralParserBenchmark {
+
+    private InputParser<Boolean> booleans;
+    private LiteralParser<Material> materials;
+    private String off;
+    private String material;
+
+    @Setup
+    public void setup() {
+        booleans = InputParserRegistry.newRegistry().registerDefaults().find(Boolean.class).orElseThrow();
+        materials = LiteralParser.ofMaterial();
+        // The last word the old parser compared against
+        off = "OFF";
+        material = "Diamond_Sword";
+    }
+
+    @Benchmark
+    public Optional<Boolean> parseBoolean() {
+        return booleans.parse(off);
+    }
+
+    @Benchmark
+    public Optional<Material> parseMaterial() {
+        return materials.parse(material);
+    }
+
+    @Benchmark
+    public Material matchMaterial() {
+        return Material.matchMaterial(material);
+    }
+
+}
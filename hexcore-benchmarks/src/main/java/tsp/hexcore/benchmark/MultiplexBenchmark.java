@@ -0,0 +1,68 @@
+package tsp.hexcore.benchmark;
+
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tsp.hexcore.input.Input;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.registry.InputRegistry;
+import tsp.hexcore.input.registry.InputRegistryBuilder;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks a message passing over inputs of one type to answer an input of another,
+ * with {@link InputRegistryBuilder#multiplex() multiplexing}. The message is parsed once per type,
+ * so the time should barely grow with the number of inputs it passes over.
+ *
+ * @author TheSilentPro (Silent)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiplexBenchmark {
+
+    @Param({"1", "16"})
+    private int passed;
+
+    private InputRegistry registry;
+    private UUID id;
+    private Input<Duration> input;
+    private AsyncPlayerChatEvent duration;
+    private long handled;
+
+    @Setup
+    public void setup() {
+        registry = InputRegistry.builder(InputParserRegistry.newRegistry().registerDefaults()).multiplex().build();
+        id = UUID.randomUUID();
+        for (int i = 0; i < passed; i++) {
+            Input.await(id, Integer.class).register(registry);
+        }
+
+        // Registered again on every invocation, which is allowed once the previous registration was answered
+        input = Input.await(id, Duration.class).then(value -> handled += value.toMillis());
+        duration = ChatEvents.create("5m");
+    }
+
+    @Benchmark
+    public long answer() {
+        registry.register(input);
+        registry.process(id, duration.getMessage(), duration);
+        return handled;
+    }
+
+}
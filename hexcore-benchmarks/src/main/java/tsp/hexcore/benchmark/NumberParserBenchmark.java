@@ -0,0 +1,77 @@
+package tsp.hexcore.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tsp.hexcore.util.NumberParser;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link NumberParser} on matching and mismatching input.
+ * The mismatch cases are what players typing text into numeric prompts hit.
+ *
+ * @author TheSilentPro (Silent)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NumberParserBenchmark {
+
+    @Param({"123", "-123.45", "hello there", "99999999999999999999"})
+    public String input;
+
+    @Benchmark
+    public Optional<Number> parse() {
+        return NumberParser.parse(input);
+    }
+
+    @Benchmark
+    public Optional<Integer> parseInteger() {
+        return NumberParser.parseInteger(input);
+    }
+
+    @Benchmark
+    public Optional<Long> parseLong() {
+        return NumberParser.parseLong(input);
+    }
+
+    @Benchmark
+    public Optional<Byte> parseByte() {
+        return NumberParser.parseByte(input);
+    }
+
+    @Benchmark
+    public Optional<Float> parseFloat() {
+        return NumberParser.parseFloat(input);
+    }
+
+    @Benchmark
+    public Optional<Double> parseDouble() {
+        return NumberParser.parseDouble(input);
+    }
+
+    /**
+     * The exception based approach the scanners replaced, for reference.
+     */
+    @Benchmark
+    public Optional<Integer> parseIntegerWithException() {
+        try {
+            return Optional.of(Integer.parseInt(input));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+}
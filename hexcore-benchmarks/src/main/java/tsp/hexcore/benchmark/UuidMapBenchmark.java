@@ -0,0 +1,83 @@
+package tsp.hexcore.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tsp.hexcore.util.UuidMap;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link UuidMap} with {@link ConcurrentHashMap} for the lookups the input registry does per message.
+ * Keys are looked up in random order through fresh {@link UUID} instances, as each chat event carries its own.
+ *
+ * @author TheSilentPro (Silent)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UuidMapBenchmark {
+
+    private static final int LOOKUPS = 1 << 12;
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    @Param({"ConcurrentHashMap", "UuidMap"})
+    private String map;
+
+    private ConcurrentMap<UUID, Object> instance;
+    private UUID[] hits;
+    private UUID[] misses;
+    private int index;
+
+    @Setup
+    public void setup() {
+        instance = map.equals("UuidMap") ? new UuidMap<>() : new ConcurrentHashMap<>();
+        UUID[] keys = new UUID[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = UUID.randomUUID();
+            instance.put(keys[i], new Object());
+        }
+
+        hits = new UUID[LOOKUPS];
+        misses = new UUID[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            UUID key = keys[(int) (Math.random() * size)];
+            hits[i] = new UUID(key.getMostSignificantBits(), key.getLeastSignificantBits());
+            misses[i] = UUID.randomUUID();
+        }
+    }
+
+    @Benchmark
+    public Object getHit() {
+        return instance.get(hits[index++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public Object getMiss() {
+        return instance.get(misses[index++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public Object putRemove() {
+        UUID key = misses[index++ & (LOOKUPS - 1)];
+        instance.put(key, key);
+        return instance.remove(key);
+    }
+
+}
@@ -2,11 +2,13 @@ package tsp.hexcore.input;
 
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.jetbrains.annotations.Nullable;
+import tsp.hexcore.input.parser.InputParser;
 import tsp.hexcore.input.registry.InputRegistry;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -24,7 +26,16 @@ public class BaseInput<T> implements Input<T> {
     private BiConsumer<T, AsyncPlayerChatEvent> biHandler;
     private Consumer<String> mismatchHandler;
     private Consumer<String> expiredHandler;
+    private Consumer<InputOutcome> cancelledHandler;
+    private String route;
+    private boolean keyword;
+    private InputParser<T> parser;
     private boolean ignoreExpired;
+    private volatile CompletableFuture<T> future;
+    // How the input ended, guarded by this
+    private boolean settled;
+    private T value;
+    private Throwable cause;
 
     public BaseInput(UUID id, Class<T> requiredInputType) {
         this.id = id;
@@ -36,6 +47,7 @@ public class BaseInput<T> implements Input<T> {
     @Override
     public Input<T> until(Duration duration) {
         this.duration = duration;
+        refresh();
         return this;
     }
 
@@ -63,6 +75,38 @@ public class BaseInput<T> implements Input<T> {
         return this;
     }
 
+    @Override
+    public Input<T> cancelled(Consumer<InputOutcome> handler) {
+        this.cancelledHandler = handler;
+        return this;
+    }
+
+    @Override
+    public Input<T> keyword(String keyword) {
+        return route(keyword, true);
+    }
+
+    @Override
+    public Input<T> prefix(String prefix) {
+        return route(prefix, false);
+    }
+
+    private Input<T> route(String route, boolean keyword) {
+        if (route.isEmpty()) {
+            throw new IllegalArgumentException("Route must not be empty.");
+        }
+
+        this.route = route;
+        this.keyword = keyword;
+        return this;
+    }
+
+    @Override
+    public Input<T> parser(InputParser<T> parser) {
+        this.parser = parser;
+        return this;
+    }
+
     @Override
     public Input<T> register(InputRegistry registry) {
         registry.register(this);
@@ -73,15 +117,71 @@ public class BaseInput<T> implements Input<T> {
     @Override
     public Input<T> timestamp(Instant timestamp) {
         this.createdAt = timestamp;
+        refresh();
         return this;
     }
 
     @Override
     public Input<T> ignoreExpired() {
         this.ignoreExpired = true;
+        refresh();
         return this;
     }
 
+    @Override
+    public CompletableFuture<T> future() {
+        CompletableFuture<T> future = this.future;
+        if (future == null) {
+            synchronized (this) {
+                future = this.future;
+                if (future == null) {
+                    future = new CompletableFuture<>();
+                    // Requested after the input ended, nothing will complete it later
+                    if (settled) {
+                        complete(future, value, cause);
+                    }
+                    this.future = future;
+                }
+            }
+        }
+        return future;
+    }
+
+    @Override
+    public void settle(T value, Throwable cause) {
+        CompletableFuture<T> future;
+        synchronized (this) {
+            if (settled) {
+                return;
+            }
+            this.settled = true;
+            this.value = value;
+            this.cause = cause;
+            future = this.future;
+        }
+
+        if (future != null) {
+            complete(future, value, cause);
+        }
+    }
+
+    private static <T> void complete(CompletableFuture<T> future, T value, Throwable cause) {
+        if (cause != null) {
+            future.completeExceptionally(cause);
+        } else {
+            future.complete(value);
+        }
+    }
+
+    /**
+     * Lets the registry pick up changes made after registration.
+     */
+    private void refresh() {
+        if (registry != null) {
+            registry.refresh(this);
+        }
+    }
+
     // Getters
 
     @Override
@@ -119,6 +219,34 @@ public class BaseInput<T> implements Input<T> {
         return expiredHandler;
     }
 
+    @Override
+    public Consumer<InputOutcome> getCancelledHandler() {
+        return cancelledHandler;
+    }
+
+    @Override
+    @Nullable
+    public String getRoute() {
+        return route;
+    }
+
+    @Override
+    public boolean isKeyword() {
+        return keyword;
+    }
+
+    @Override
+    @Nullable
+    public InputParser<T> getParser() {
+        return parser;
+    }
+
+    @Override
+    @Nullable
+    public CompletableFuture<T> getFuture() {
+        return future;
+    }
+
     @Override
     public Class<T> getRequiredInputType() {
         return requiredInputType;
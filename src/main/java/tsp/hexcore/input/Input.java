@@ -1,11 +1,16 @@
 package tsp.hexcore.input;
 
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.jetbrains.annotations.Nullable;
+import tsp.hexcore.input.parser.ArgumentSignature;
+import tsp.hexcore.input.parser.Arguments;
+import tsp.hexcore.input.parser.InputParser;
 import tsp.hexcore.input.registry.InputRegistry;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -32,6 +37,19 @@ public interface Input<T> {
         return new BaseInput<>(id, requiredInputType);
     }
 
+    /**
+     * Creates a new input instance that awaits several arguments in a single message,
+     * e.g. an amount and a duration.
+     *
+     * @param id The unique identifier for the input instance.
+     * @param signature The compiled signature of the arguments.
+     * @return A new {@link Input} instance that is awaiting user input.
+     * @see tsp.hexcore.input.parser.InputParserRegistry#signature(Class[])
+     */
+    static Input<Arguments> await(UUID id, ArgumentSignature signature) {
+        return new BaseInput<>(id, Arguments.class).parser(signature);
+    }
+
     default Input<String> awaitString() {
         return await(getId(), String.class).register(getRegistry());
     }
@@ -160,6 +178,9 @@ public interface Input<T> {
     /**
      * Sets a handler that is executed when the expected input is provided, with
      * additional context from an {@link AsyncPlayerChatEvent}.
+     * It runs inline while the event is dispatched, even if the registry runs other handlers on a
+     * {@link tsp.hexcore.input.registry.HandlerExecutor}, so it can still cancel or change the event.
+     * It runs before the {@link #then(Consumer) input handler} in that case.
      *
      * @param handler The handler that processes the input and the event.
      * @return The updated input instance with the handler applied.
@@ -176,12 +197,67 @@ public interface Input<T> {
 
     /**
      * Sets a handler to be executed when the input has expired.
+     * The handler receives the message that arrived after the deadline, or {@code null} if the input
+     * was expired proactively by its registry.
      *
      * @param handler The handler that processes the expiration event.
      * @return The updated input instance with the expiration handler applied.
      */
     Input<T> expired(Consumer<String> handler);
 
+    /**
+     * Sets a handler to be executed when the registry ends the input without an answer:
+     * {@link InputOutcome#CANCELLED} when the player left, or {@link InputOutcome#OVERFLOW} when the input
+     * was dropped to keep the registry within its limits.
+     *
+     * @param handler The handler that processes the outcome.
+     * @return The updated input instance with the cancellation handler applied.
+     * @throws UnsupportedOperationException If this input does not support cancellation handlers, the default.
+     */
+    default Input<T> cancelled(Consumer<InputOutcome> handler) {
+        throw new UnsupportedOperationException("Cancellation handlers are not supported by this input.");
+    }
+
+    /**
+     * Routes only messages that are the keyword to this input, ignoring case, e.g. {@code "confirm"}.
+     * Routed inputs do not take part in the order of the other inputs of the player: a message goes to the input
+     * with the longest matching route, and only messages without a match go to the oldest unrouted input.
+     * Must be set before the input is registered.
+     *
+     * @param keyword The keyword.
+     * @return The updated input instance with the route set.
+     * @throws UnsupportedOperationException If this input does not support routes, the default.
+     * @see #prefix(String)
+     */
+    default Input<T> keyword(String keyword) {
+        throw new UnsupportedOperationException("Routes are not supported by this input.");
+    }
+
+    /**
+     * Routes messages that start with the prefix to this input, ignoring case, e.g. {@code "!bid"}.
+     * The rest of the message, without leading whitespace, is parsed.
+     * Must be set before the input is registered.
+     *
+     * @param prefix The prefix.
+     * @return The updated input instance with the route set.
+     * @throws UnsupportedOperationException If this input does not support routes, the default.
+     * @see #keyword(String)
+     */
+    default Input<T> prefix(String prefix) {
+        throw new UnsupportedOperationException("Routes are not supported by this input.");
+    }
+
+    /**
+     * Sets the parser for this input, used instead of the parser registered for its type.
+     *
+     * @param parser The parser.
+     * @return The updated input instance with the parser set.
+     * @throws UnsupportedOperationException If this input does not support parsers of its own, the default.
+     */
+    default Input<T> parser(InputParser<T> parser) {
+        throw new UnsupportedOperationException("Parsers are not supported by this input.");
+    }
+
     /**
      * Sets the timestamp at which the input was created.
      *
@@ -217,6 +293,52 @@ public interface Input<T> {
      */
     Input<T> register(InputRegistry registry);
 
+    /**
+     * Registers the input with a given registry and returns its {@link #future() future}.
+     *
+     * @param registry The registry to register the input with.
+     * @return The future of the input.
+     */
+    default CompletableFuture<T> submit(InputRegistry registry) {
+        CompletableFuture<T> future = future();
+        register(registry);
+        return future;
+    }
+
+    /**
+     * Gets a future of the outcome of the input, created on the first call.
+     * It completes with the parsed value after the handlers ran, or exceptionally with an {@link InputException}
+     * on a mismatch, expiration or cancellation. It is completed by the registry without any extra thread.
+     * Requested after the input ended, it is already completed with the recorded outcome.
+     *
+     * @return The future.
+     * @throws UnsupportedOperationException If this input does not support futures, the default.
+     * @see #settle(Object, Throwable)
+     */
+    default CompletableFuture<T> future() {
+        throw new UnsupportedOperationException("Futures are not supported by this input.");
+    }
+
+    /**
+     * Records how the input ended and completes its {@link #future() future}, if requested.
+     * Called by the registry, only the first outcome counts.
+     *
+     * @param value The parsed value, or {@code null} if the input ended without one.
+     * @param cause Why the input ended without a value, or {@code null} if it ended with one.
+     */
+    default void settle(@Nullable T value, @Nullable Throwable cause) {
+        CompletableFuture<T> future = getFuture();
+        if (future == null) {
+            return;
+        }
+
+        if (cause != null) {
+            future.completeExceptionally(cause);
+        } else {
+            future.complete(value);
+        }
+    }
+
     // Getters
 
     /**
@@ -270,6 +392,54 @@ public interface Input<T> {
      */
     Consumer<String> getExpiredHandler();
 
+    /**
+     * Gets the handler that processes a cancelled input.
+     *
+     * @return The consumer that handles the cancellation.
+     */
+    default Consumer<InputOutcome> getCancelledHandler() {
+        return null;
+    }
+
+    /**
+     * Gets the keyword or prefix messages are routed to this input by.
+     *
+     * @return The route, or {@code null} if the input is not routed.
+     */
+    @Nullable
+    default String getRoute() {
+        return null;
+    }
+
+    /**
+     * Checks whether the {@link #getRoute() route} is a keyword rather than a prefix.
+     *
+     * @return {@code true} if the route is a keyword.
+     */
+    default boolean isKeyword() {
+        return false;
+    }
+
+    /**
+     * Gets the parser set for this input, or {@code null} if the parser registered for its type is used.
+     *
+     * @return The parser.
+     */
+    @Nullable
+    default InputParser<T> getParser() {
+        return null;
+    }
+
+    /**
+     * Gets the future of the input, if it has been requested.
+     *
+     * @return The future, or {@code null} if {@link #future()} has not been called.
+     */
+    @Nullable
+    default CompletableFuture<T> getFuture() {
+        return null;
+    }
+
     /**
      * Gets the class type of the expected input.
      *
@@ -0,0 +1,44 @@
+package tsp.hexcore.input;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Completes the {@link Input#future() future} of an input that ended without a value.
+ * Carries no stack trace, as it signals an expected outcome rather than an error.
+ *
+ * @author TheSilentPro (Silent)
+ */
+public class InputException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final InputOutcome outcome;
+    private final String input;
+
+    public InputException(@NotNull InputOutcome outcome, @Nullable String input) {
+        super(input != null ? outcome + ": " + input : outcome.toString(), null, false, false);
+        this.outcome = outcome;
+        this.input = input;
+    }
+
+    /**
+     * Gets how the input ended.
+     *
+     * @return The outcome.
+     */
+    public InputOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Gets the message that ended the input.
+     *
+     * @return The message, or {@code null} if the input ended without one.
+     */
+    @Nullable
+    public String getInput() {
+        return input;
+    }
+
+}
@@ -4,6 +4,7 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 import tsp.hexcore.input.registry.InputRegistry;
 
@@ -17,6 +18,8 @@ public class InputListener implements Listener {
     public InputListener(JavaPlugin plugin, InputRegistry registry) {
         this.registry = registry;
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        // Drives time based work of the registry, such as proactive expiration and handlers queued for the server thread
+        plugin.getServer().getScheduler().runTaskTimer(plugin, registry::tick, 1L, 1L);
     }
 
     // handlers might want to cancel the event, therefor MONITOR is not used.
@@ -26,4 +29,10 @@ public class InputListener implements Listener {
         registry.process(event.getPlayer().getUniqueId(), event.getMessage(), event);
     }
 
-}
\ No newline at end of file
+    // Nothing can answer the inputs of a player that left, cancel them so their futures complete
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        registry.cancel(event.getPlayer().getUniqueId());
+    }
+
+}
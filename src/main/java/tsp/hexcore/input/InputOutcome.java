@@ -0,0 +1,33 @@
+package tsp.hexcore.input;
+
+/**
+ * The ways an {@link Input} can end without a value.
+ *
+ * @author TheSilentPro (Silent)
+ * @see InputException
+ */
+public enum InputOutcome {
+
+    /**
+     * The answer did not match the expected type.
+     */
+    MISMATCH,
+
+    /**
+     * The input expired before an answer arrived, or the answer arrived too late.
+     */
+    EXPIRED,
+
+    /**
+     * The input was cancelled, e.g. because the player left.
+     */
+    CANCELLED,
+
+    /**
+     * The input was dropped to keep the registry within its limits.
+     *
+     * @see tsp.hexcore.input.registry.OverflowPolicy
+     */
+    OVERFLOW
+
+}
@@ -0,0 +1,72 @@
+package tsp.hexcore.input.flow;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * A running {@link InputFlow} of a player, giving access to the answers collected so far.
+ *
+ * @author TheSilentPro (Silent)
+ */
+public interface FlowContext {
+
+    /**
+     * Gets the unique identifier the flow runs for.
+     *
+     * @return The unique identifier.
+     */
+    UUID getId();
+
+    /**
+     * Gets the flow that is running.
+     *
+     * @return The flow.
+     */
+    InputFlow getFlow();
+
+    /**
+     * Gets the step that is awaiting an answer, or the last step once the flow has ended.
+     *
+     * @return The step.
+     */
+    FlowStep<?> getStep();
+
+    /**
+     * Gets the answer to a step.
+     *
+     * @param step The name of the step.
+     * @param <T> The type of the step.
+     * @return The answer, or {@code null} if the step has not been answered.
+     * @throws IllegalArgumentException If the flow has no step with the name.
+     */
+    @Nullable
+    <T> T get(@NotNull String step);
+
+    /**
+     * Gets the answer to a step, checking it against the expected type.
+     *
+     * @param step The name of the step.
+     * @param type The expected type.
+     * @param <T> The type of the step.
+     * @return The answer, or {@code null} if the step has not been answered.
+     * @throws IllegalArgumentException If the flow has no step with the name.
+     */
+    @Nullable
+    default <T> T get(@NotNull String step, @NotNull Class<T> type) {
+        return type.cast(get(step));
+    }
+
+    /**
+     * Checks whether a step has been answered.
+     *
+     * @param step The name of the step.
+     * @return {@code true} if the step has been answered.
+     * @throws IllegalArgumentException If the flow has no step with the name.
+     */
+    default boolean has(@NotNull String step) {
+        return get(step) != null;
+    }
+
+}
@@ -0,0 +1,149 @@
+package tsp.hexcore.input.flow;
+
+import org.jetbrains.annotations.Nullable;
+import tsp.hexcore.input.parser.InputParser;
+
+import java.time.Duration;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A compiled step of an {@link InputFlow}, awaiting one typed answer.
+ *
+ * @param <T> The type of the answer.
+ * @author TheSilentPro (Silent)
+ */
+public final class FlowStep<T> {
+
+    private final String name;
+    private final int index;
+    private final Class<T> type;
+    private final InputParser<T> parser;
+    private final Duration timeout;
+    private final int retries;
+    private final Consumer<FlowContext> prompt;
+    private final BiConsumer<FlowContext, String> mismatchHandler;
+    private final Function<FlowContext, String> branch;
+    private final int next;
+
+    FlowStep(String name, int index, Class<T> type, InputParser<T> parser, Duration timeout, int retries,
+             Consumer<FlowContext> prompt, BiConsumer<FlowContext, String> mismatchHandler,
+             Function<FlowContext, String> branch, int next) {
+        this.name = name;
+        this.index = index;
+        this.type = type;
+        this.parser = parser;
+        this.timeout = timeout;
+        this.retries = retries;
+        this.prompt = prompt;
+        this.mismatchHandler = mismatchHandler;
+        this.branch = branch;
+        this.next = next;
+    }
+
+    /**
+     * Gets the name of the step, unique within its flow.
+     *
+     * @return The name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the position of the step in its flow.
+     *
+     * @return The index.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the type of the answer.
+     *
+     * @return The type.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Gets the parser for the answer, resolved when the flow was compiled.
+     *
+     * @return The parser.
+     */
+    public InputParser<T> getParser() {
+        return parser;
+    }
+
+    /**
+     * Gets the time the step may wait for an answer, counted from when it is entered.
+     *
+     * @return The timeout, or {@code null} if the step never expires.
+     */
+    @Nullable
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Gets the number of mismatching answers the step tolerates before the flow fails.
+     *
+     * @return The number of retries, or {@code -1} for no limit.
+     */
+    public int getRetries() {
+        return retries;
+    }
+
+    /**
+     * Gets the handler called when the step is entered, e.g. to ask the question.
+     *
+     * @return The handler, may be {@code null}.
+     */
+    @Nullable
+    public Consumer<FlowContext> getPrompt() {
+        return prompt;
+    }
+
+    /**
+     * Gets the handler called with a mismatching answer that is retried.
+     *
+     * @return The handler, may be {@code null}.
+     */
+    @Nullable
+    public BiConsumer<FlowContext, String> getMismatchHandler() {
+        return mismatchHandler;
+    }
+
+    /**
+     * Decides which step follows this one, once it has been answered.
+     *
+     * @param context The running flow.
+     * @return The index of the next step, or {@link InputFlow#END} if the flow is complete.
+     * @throws IllegalStateException If the branch of the step names a step that does not exist.
+     */
+    int next(FlowContext context) {
+        if (branch == null) {
+            return next;
+        }
+
+        String name = branch.apply(context);
+        if (name == null) {
+            return InputFlow.END;
+        }
+
+        int index = context.getFlow().indexOf(name);
+        if (index < 0) {
+            throw new IllegalStateException("Step '" + this.name + "' branched to unknown step: " + name);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowStep{" + name + ": " + type.getSimpleName() + "}";
+    }
+
+}
@@ -0,0 +1,145 @@
+package tsp.hexcore.input.flow;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import tsp.hexcore.input.registry.InputRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * A compiled sequence of typed prompts, such as a shop or claim wizard.
+ * <p>
+ * A flow is built once with an {@link InputFlowBuilder}, which resolves the parser of every step,
+ * and is immutable afterward, so it can be shared by every player running it.
+ * A running flow is a single cursor in the {@link InputRegistry}, moving from step to step as answers arrive.
+ * </p>
+ *
+ * <pre>{@code
+ * InputFlow flow = InputFlow.builder()
+ *         .step("amount", Integer.class).prompt(ctx -> player.sendMessage("How many?")).retries(3)
+ *         .step("duration", Duration.class).timeout(Duration.ofSeconds(30))
+ *         .then(ctx -> shop.buy(ctx.get("amount"), ctx.get("duration")))
+ *         .build(parserRegistry);
+ *
+ * flow.start(player.getUniqueId(), registry);
+ * }</pre>
+ *
+ * @author TheSilentPro (Silent)
+ */
+public final class InputFlow {
+
+    /**
+     * The index of the step following the last one.
+     */
+    public static final int END = -1;
+
+    private final List<FlowStep<?>> steps;
+    private final Map<String, Integer> indices;
+    private final Consumer<FlowContext> completeHandler;
+    private final Consumer<FlowContext> expiredHandler;
+    private final Consumer<FlowContext> failedHandler;
+
+    InputFlow(List<FlowStep<?>> steps, Map<String, Integer> indices, Consumer<FlowContext> completeHandler,
+              Consumer<FlowContext> expiredHandler, Consumer<FlowContext> failedHandler) {
+        this.steps = steps;
+        this.indices = indices;
+        this.completeHandler = completeHandler;
+        this.expiredHandler = expiredHandler;
+        this.failedHandler = failedHandler;
+    }
+
+    /**
+     * Creates a builder for a new flow.
+     *
+     * @return A new {@link InputFlowBuilder}.
+     */
+    public static InputFlowBuilder builder() {
+        return new InputFlowBuilder();
+    }
+
+    /**
+     * Starts the flow, replacing a flow that is already running for the id.
+     *
+     * @param id The unique identifier to run the flow for.
+     * @param registry The registry receiving the answers.
+     * @see InputRegistry#start(UUID, InputFlow)
+     */
+    public void start(@NotNull UUID id, @NotNull InputRegistry registry) {
+        registry.start(id, this);
+    }
+
+    /**
+     * Decides which step follows the current step of a running flow, once it has been answered.
+     *
+     * @param context The running flow.
+     * @return The index of the next step, or {@link #END} if the flow is complete.
+     * @throws IllegalStateException If the step branches to a step that does not exist.
+     */
+    public int next(@NotNull FlowContext context) {
+        return context.getStep().next(context);
+    }
+
+    /**
+     * Gets the steps of the flow, the first one being where it starts.
+     *
+     * @return The steps.
+     */
+    public List<FlowStep<?>> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Gets a step of the flow.
+     *
+     * @param index The index of the step.
+     * @return The step.
+     */
+    public FlowStep<?> getStep(int index) {
+        return steps.get(index);
+    }
+
+    /**
+     * Gets the index of a step.
+     *
+     * @param name The name of the step.
+     * @return The index, or {@code -1} if the flow has no step with the name.
+     */
+    public int indexOf(@NotNull String name) {
+        Integer index = indices.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Gets the handler called once the last step has been answered.
+     *
+     * @return The handler, may be {@code null}.
+     */
+    @Nullable
+    public Consumer<FlowContext> getCompleteHandler() {
+        return completeHandler;
+    }
+
+    /**
+     * Gets the handler called when a step times out.
+     *
+     * @return The handler, may be {@code null}.
+     */
+    @Nullable
+    public Consumer<FlowContext> getExpiredHandler() {
+        return expiredHandler;
+    }
+
+    /**
+     * Gets the handler called when a step runs out of retries.
+     *
+     * @return The handler, may be {@code null}.
+     */
+    @Nullable
+    public Consumer<FlowContext> getFailedHandler() {
+        return failedHandler;
+    }
+
+}
@@ -0,0 +1,241 @@
+package tsp.hexcore.input.flow;
+
+import org.jetbrains.annotations.NotNull;
+import tsp.hexcore.input.parser.InputParser;
+import tsp.hexcore.input.parser.InputParserRegistry;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Builder for an {@link InputFlow}.
+ * Steps are answered in the order they are added unless they branch, and step settings apply to the last added step.
+ *
+ * @author TheSilentPro (Silent)
+ * @see InputFlow#builder()
+ */
+public final class InputFlowBuilder {
+
+    private final List<StepBuilder> steps = new ArrayList<>();
+    private Consumer<FlowContext> completeHandler;
+    private Consumer<FlowContext> expiredHandler;
+    private Consumer<FlowContext> failedHandler;
+
+    InputFlowBuilder() {}
+
+    /**
+     * Adds a step awaiting an answer of the given type.
+     *
+     * @param name The name of the step, unique within the flow.
+     * @param type The type of the answer.
+     * @return This builder.
+     */
+    public InputFlowBuilder step(@NotNull String name, @NotNull Class<?> type) {
+        for (StepBuilder step : steps) {
+            if (step.name.equals(name)) {
+                throw new IllegalArgumentException("Duplicate step: " + name);
+            }
+        }
+
+        steps.add(new StepBuilder(name, type));
+        return this;
+    }
+
+    /**
+     * Sets the parser of the last step, used instead of the one registered for its type.
+     *
+     * @param parser The parser.
+     * @return This builder.
+     */
+    public InputFlowBuilder parser(@NotNull InputParser<?> parser) {
+        last().parser = parser;
+        return this;
+    }
+
+    /**
+     * Sets the time the last step may wait for an answer, counted from when it is entered.
+     *
+     * @param timeout The timeout.
+     * @return This builder.
+     */
+    public InputFlowBuilder timeout(@NotNull Duration timeout) {
+        last().timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Sets the number of mismatching answers the last step tolerates before the flow fails.
+     * By default there is no limit.
+     *
+     * @param retries The number of retries.
+     * @return This builder.
+     */
+    public InputFlowBuilder retries(int retries) {
+        if (retries < 0) {
+            throw new IllegalArgumentException("Retries must not be negative: " + retries);
+        }
+
+        last().retries = retries;
+        return this;
+    }
+
+    /**
+     * Sets the handler called when the last step is entered, e.g. to ask the question.
+     *
+     * @param prompt The handler.
+     * @return This builder.
+     */
+    public InputFlowBuilder prompt(@NotNull Consumer<FlowContext> prompt) {
+        last().prompt = prompt;
+        return this;
+    }
+
+    /**
+     * Sets the handler called with a mismatching answer to the last step that is retried.
+     *
+     * @param handler The handler.
+     * @return This builder.
+     */
+    public InputFlowBuilder mismatch(@NotNull BiConsumer<FlowContext, String> handler) {
+        last().mismatchHandler = handler;
+        return this;
+    }
+
+    /**
+     * Sets the step following the last step.
+     *
+     * @param step The name of the next step.
+     * @return This builder.
+     */
+    public InputFlowBuilder next(@NotNull String step) {
+        last().next = step;
+        last().branch = null;
+        return this;
+    }
+
+    /**
+     * Sets the function choosing the step following the last step, based on the answers so far.
+     * It runs on the thread processing the answer and may return {@code null} to complete the flow.
+     *
+     * @param branch The function returning the name of the next step.
+     * @return This builder.
+     */
+    public InputFlowBuilder next(@NotNull Function<FlowContext, String> branch) {
+        last().branch = branch;
+        last().next = null;
+        return this;
+    }
+
+    /**
+     * Completes the flow after the last step, instead of continuing with the following one.
+     *
+     * @return This builder.
+     */
+    public InputFlowBuilder end() {
+        return next(context -> null);
+    }
+
+    /**
+     * Sets the handler called once the flow is complete.
+     *
+     * @param handler The handler.
+     * @return This builder.
+     */
+    public InputFlowBuilder then(@NotNull Consumer<FlowContext> handler) {
+        this.completeHandler = handler;
+        return this;
+    }
+
+    /**
+     * Sets the handler called when a step times out, which ends the flow.
+     *
+     * @param handler The handler.
+     * @return This builder.
+     */
+    public InputFlowBuilder expired(@NotNull Consumer<FlowContext> handler) {
+        this.expiredHandler = handler;
+        return this;
+    }
+
+    /**
+     * Sets the handler called when a step runs out of retries, which ends the flow.
+     *
+     * @param handler The handler.
+     * @return This builder.
+     */
+    public InputFlowBuilder failed(@NotNull Consumer<FlowContext> handler) {
+        this.failedHandler = handler;
+        return this;
+    }
+
+    /**
+     * Compiles the flow, resolving the parser of every step.
+     *
+     * @param parserRegistry The registry providing the parsers.
+     * @return The compiled flow.
+     * @throws IllegalArgumentException If the flow has no steps, a step names an unknown next step,
+     *                                  or no parser is registered for the type of a step.
+     */
+    public InputFlow build(@NotNull InputParserRegistry parserRegistry) {
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("A flow needs at least one step.");
+        }
+
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < steps.size(); i++) {
+            indices.put(steps.get(i).name, i);
+        }
+
+        List<FlowStep<?>> compiled = new ArrayList<>(steps.size());
+        for (int i = 0; i < steps.size(); i++) {
+            compiled.add(steps.get(i).compile(parserRegistry, indices, i, i + 1 < steps.size() ? i + 1 : InputFlow.END));
+        }
+        return new InputFlow(List.copyOf(compiled), Map.copyOf(indices), completeHandler, expiredHandler, failedHandler);
+    }
+
+    private StepBuilder last() {
+        if (steps.isEmpty()) {
+            throw new IllegalStateException("No step has been added yet.");
+        }
+        return steps.get(steps.size() - 1);
+    }
+
+    private static final class StepBuilder {
+
+        private final String name;
+        private final Class<?> type;
+        private InputParser<?> parser;
+        private Duration timeout;
+        private int retries = -1;
+        private Consumer<FlowContext> prompt;
+        private BiConsumer<FlowContext, String> mismatchHandler;
+        private String next;
+        private Function<FlowContext, String> branch;
+
+        private StepBuilder(String name, Class<?> type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private FlowStep<?> compile(InputParserRegistry parserRegistry, Map<String, Integer> indices, int index, int following) {
+            InputParser<?> resolved = parser != null ? parser : parserRegistry.findChain(type)
+                    .orElseThrow(() -> new IllegalArgumentException("No parser found for step '" + name + "' of type: " + type.getName()));
+
+            int nextIndex = following;
+            if (next != null) {
+                Integer target = indices.get(next);
+                if (target == null) {
+                    throw new IllegalArgumentException("Step '" + name + "' continues with unknown step: " + next);
+                }
+                nextIndex = target;
+            }
+            return new FlowStep(name, index, type, resolved, timeout, retries, prompt, mismatchHandler, branch, nextIndex);
+        }
+
+    }
+
+}
@@ -0,0 +1,79 @@
+package tsp.hexcore.input.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import tsp.hexcore.input.InputOutcome;
+
+import java.util.Map;
+
+/**
+ * {@link InputMetrics} that record nothing. The registry recognizes them and does not report to them at all.
+ *
+ * @author TheSilentPro (Silent)
+ * @see InputMetrics#disabled()
+ */
+enum DisabledMetrics implements InputMetrics {
+
+    INSTANCE;
+
+    @Override
+    public void registered(@NotNull Class<?> type) {}
+
+    @Override
+    public void removed(@NotNull Class<?> type) {}
+
+    @Override
+    public void parsed(@NotNull Class<?> type, long nanos) {}
+
+    @Override
+    public void answered(@NotNull Class<?> type, long nanos) {}
+
+    @Override
+    public void handled(@NotNull Class<?> type, long nanos) {}
+
+    @Override
+    public void rejected(@NotNull Class<?> type, @NotNull InputOutcome outcome) {}
+
+    @Override
+    public void missingParser(@NotNull Class<?> type) {}
+
+    @Override
+    public long getPending() {
+        return 0;
+    }
+
+    @Override
+    public Map<Class<?>, Long> getPendingByType() {
+        return Map.of();
+    }
+
+    @Override
+    public long getAnswered() {
+        return 0;
+    }
+
+    @Override
+    public long getRejected(@NotNull InputOutcome outcome) {
+        return 0;
+    }
+
+    @Override
+    public long getMissingParser() {
+        return 0;
+    }
+
+    @Override
+    public Map<Class<?>, Histogram> getParseTimes() {
+        return Map.of();
+    }
+
+    @Override
+    public Histogram getAnswerTime() {
+        return new Histogram();
+    }
+
+    @Override
+    public Histogram getHandlerTime() {
+        return new Histogram();
+    }
+
+}
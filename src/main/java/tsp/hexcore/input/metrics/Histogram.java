@@ -0,0 +1,143 @@
+package tsp.hexcore.input.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations in nanoseconds.
+ * <p>
+ * Values are counted in log-linear buckets: every power of two is split into four buckets,
+ * so a percentile is reported at most 25% above the true value. Recording is a few atomic increments
+ * and never allocates, reading is weakly consistent while values are being recorded.
+ * </p>
+ *
+ * @author TheSilentPro (Silent)
+ */
+public final class Histogram {
+
+    // Bits of a value below its highest one bit that select the bucket within its power of two
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos The duration in nanoseconds, negative durations are recorded as zero.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        buckets.incrementAndGet(bucketOf(nanos));
+        total.add(nanos);
+        long current;
+        while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos)) {
+            // Retry, another thread raised the maximum
+        }
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += buckets.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the sum of the recorded durations.
+     *
+     * @return The total in nanoseconds.
+     */
+    public long getTotal() {
+        return total.sum();
+    }
+
+    /**
+     * Gets the mean of the recorded durations.
+     *
+     * @return The mean in nanoseconds, or {@code 0} if nothing was recorded.
+     */
+    public double getMean() {
+        long count = getCount();
+        return count == 0 ? 0 : (double) getTotal() / count;
+    }
+
+    /**
+     * Gets the longest recorded duration.
+     *
+     * @return The maximum in nanoseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets a percentile of the recorded durations, e.g. {@code 99} for the duration that 99% of the recorded ones
+     * do not exceed. Reported as the upper bound of the bucket it falls into.
+     *
+     * @param percentile The percentile, from {@code 0} to {@code 100}.
+     * @return The duration in nanoseconds, or {@code 0} if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            count += counts[i];
+        }
+
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        long next = (SUB_BUCKETS + sub + 1) << shift;
+        // The last bucket ends at Long.MAX_VALUE, where next overflows
+        return next > 0 ? next - 1 : Long.MAX_VALUE;
+    }
+
+}
@@ -0,0 +1,154 @@
+package tsp.hexcore.input.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import tsp.hexcore.input.InputOutcome;
+
+import java.util.Map;
+
+/**
+ * What an {@link tsp.hexcore.input.registry.InputRegistry} is doing: the inputs it holds, how they end
+ * and how long parsing, answering and handling take. Durations are in nanoseconds.
+ * <p>
+ * The registry reports to it through the recording methods, which implementations may forward to any
+ * metrics system. {@link #recording()} keeps the numbers in striped counters and lock-free {@link Histogram histograms},
+ * cheap enough to leave enabled. With {@link #disabled()}, the default, the registry does not measure anything.
+ * </p>
+ *
+ * @author TheSilentPro (Silent)
+ * @see tsp.hexcore.input.registry.InputRegistryBuilder#metrics(InputMetrics)
+ */
+public interface InputMetrics {
+
+    /**
+     * Gets the metrics that record nothing. The registry recognizes them and skips measuring altogether.
+     *
+     * @return The disabled metrics.
+     */
+    static InputMetrics disabled() {
+        return DisabledMetrics.INSTANCE;
+    }
+
+    /**
+     * Creates metrics that keep what they are reported in memory.
+     *
+     * @return New recording metrics.
+     */
+    static InputMetrics recording() {
+        return new RecordingMetrics();
+    }
+
+    // Recording
+
+    /**
+     * Called when an input is registered.
+     *
+     * @param type The type of the input.
+     */
+    void registered(@NotNull Class<?> type);
+
+    /**
+     * Called when an input is taken out of the registry, whatever its outcome.
+     *
+     * @param type The type of the input.
+     */
+    void removed(@NotNull Class<?> type);
+
+    /**
+     * Called when a message has been parsed for an input.
+     *
+     * @param type The type of the input.
+     * @param nanos The time spent parsing.
+     */
+    void parsed(@NotNull Class<?> type, long nanos);
+
+    /**
+     * Called when an input receives a valid answer in time.
+     *
+     * @param type The type of the input.
+     * @param nanos The time from registering the input to the answer.
+     */
+    void answered(@NotNull Class<?> type, long nanos);
+
+    /**
+     * Called when the handlers of an answered input have run.
+     *
+     * @param type The type of the input.
+     * @param nanos The time spent in the handlers.
+     */
+    void handled(@NotNull Class<?> type, long nanos);
+
+    /**
+     * Called when an input ends without a value.
+     *
+     * @param type The type of the input.
+     * @param outcome The outcome.
+     */
+    void rejected(@NotNull Class<?> type, @NotNull InputOutcome outcome);
+
+    /**
+     * Called when a message arrives for an input that has no parser.
+     *
+     * @param type The type of the input.
+     */
+    void missingParser(@NotNull Class<?> type);
+
+    // Getters
+
+    /**
+     * Gets the number of inputs awaiting an answer.
+     *
+     * @return The number of pending inputs.
+     */
+    long getPending();
+
+    /**
+     * Gets the number of inputs awaiting an answer per type, only types with pending inputs are included.
+     *
+     * @return The pending inputs by type.
+     */
+    Map<Class<?>, Long> getPendingByType();
+
+    /**
+     * Gets the number of inputs that received a valid answer in time.
+     *
+     * @return The count.
+     */
+    long getAnswered();
+
+    /**
+     * Gets the number of inputs that ended without a value.
+     *
+     * @param outcome The outcome.
+     * @return The count.
+     */
+    long getRejected(@NotNull InputOutcome outcome);
+
+    /**
+     * Gets the number of messages that arrived for an input without a parser.
+     *
+     * @return The count.
+     */
+    long getMissingParser();
+
+    /**
+     * Gets the time spent parsing messages, per type of input.
+     *
+     * @return The histograms by type.
+     */
+    Map<Class<?>, Histogram> getParseTimes();
+
+    /**
+     * Gets the time from registering inputs to their answer.
+     *
+     * @return The histogram.
+     */
+    Histogram getAnswerTime();
+
+    /**
+     * Gets the time spent in the handlers of answered inputs.
+     *
+     * @return The histogram.
+     */
+    Histogram getHandlerTime();
+
+}
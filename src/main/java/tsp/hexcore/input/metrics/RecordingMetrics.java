@@ -0,0 +1,137 @@
+package tsp.hexcore.input.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import tsp.hexcore.input.InputOutcome;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link InputMetrics} kept in memory, in {@link LongAdder}s and {@link Histogram}s.
+ * Per type state is created on the first report for a type and looked up without locking afterwards.
+ *
+ * @author TheSilentPro (Silent)
+ * @see InputMetrics#recording()
+ */
+final class RecordingMetrics implements InputMetrics {
+
+    private final ConcurrentHashMap<Class<?>, TypeMetrics> types = new ConcurrentHashMap<>();
+    private final LongAdder answered = new LongAdder();
+    private final LongAdder missingParser = new LongAdder();
+    private final EnumMap<InputOutcome, LongAdder> rejected = new EnumMap<>(InputOutcome.class);
+    private final Histogram answerTime = new Histogram();
+    private final Histogram handlerTime = new Histogram();
+
+    RecordingMetrics() {
+        for (InputOutcome outcome : InputOutcome.values()) {
+            rejected.put(outcome, new LongAdder());
+        }
+    }
+
+    @Override
+    public void registered(@NotNull Class<?> type) {
+        type(type).pending.increment();
+    }
+
+    @Override
+    public void removed(@NotNull Class<?> type) {
+        type(type).pending.decrement();
+    }
+
+    @Override
+    public void parsed(@NotNull Class<?> type, long nanos) {
+        type(type).parseTime.record(nanos);
+    }
+
+    @Override
+    public void answered(@NotNull Class<?> type, long nanos) {
+        answered.increment();
+        answerTime.record(nanos);
+    }
+
+    @Override
+    public void handled(@NotNull Class<?> type, long nanos) {
+        handlerTime.record(nanos);
+    }
+
+    @Override
+    public void rejected(@NotNull Class<?> type, @NotNull InputOutcome outcome) {
+        rejected.get(outcome).increment();
+    }
+
+    @Override
+    public void missingParser(@NotNull Class<?> type) {
+        missingParser.increment();
+    }
+
+    @Override
+    public long getPending() {
+        long pending = 0;
+        for (TypeMetrics metrics : types.values()) {
+            pending += metrics.pending.sum();
+        }
+        return pending;
+    }
+
+    @Override
+    public Map<Class<?>, Long> getPendingByType() {
+        Map<Class<?>, Long> pending = new HashMap<>();
+        types.forEach((type, metrics) -> {
+            long sum = metrics.pending.sum();
+            if (sum > 0) {
+                pending.put(type, sum);
+            }
+        });
+        return Collections.unmodifiableMap(pending);
+    }
+
+    @Override
+    public long getAnswered() {
+        return answered.sum();
+    }
+
+    @Override
+    public long getRejected(@NotNull InputOutcome outcome) {
+        return rejected.get(outcome).sum();
+    }
+
+    @Override
+    public long getMissingParser() {
+        return missingParser.sum();
+    }
+
+    @Override
+    public Map<Class<?>, Histogram> getParseTimes() {
+        Map<Class<?>, Histogram> parseTimes = new HashMap<>();
+        types.forEach((type, metrics) -> parseTimes.put(type, metrics.parseTime));
+        return Collections.unmodifiableMap(parseTimes);
+    }
+
+    @Override
+    public Histogram getAnswerTime() {
+        return answerTime;
+    }
+
+    @Override
+    public Histogram getHandlerTime() {
+        return handlerTime;
+    }
+
+    private TypeMetrics type(Class<?> type) {
+        // A plain read once the type is known
+        TypeMetrics metrics = types.get(type);
+        return metrics != null ? metrics : types.computeIfAbsent(type, k -> new TypeMetrics());
+    }
+
+    private static final class TypeMetrics {
+
+        private final LongAdder pending = new LongAdder();
+        private final Histogram parseTime = new Histogram();
+
+    }
+
+}
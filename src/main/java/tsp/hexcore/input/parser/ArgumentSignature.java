@@ -0,0 +1,106 @@
+package tsp.hexcore.input.parser;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A compiled plan for parsing several typed arguments out of one message, e.g. {@code "5 1h30m"} into an
+ * {@link Integer} and a {@link java.time.Duration}.
+ * <p>
+ * The message is tokenized once at whitespace and each token is parsed in place by the parser of its type, resolved
+ * when the signature is compiled. The last argument receives the rest of the message, so a trailing {@link String}
+ * captures free text and a trailing {@link java.time.Duration} may contain spaces. Missing arguments or a token
+ * that does not parse make the whole message a mismatch.
+ * </p>
+ *
+ * @author TheSilentPro (Silent)
+ * @see InputParserRegistry#signature(Class[])
+ */
+public final class ArgumentSignature implements RegionParser<Arguments> {
+
+    private final List<Class<?>> types;
+    private final InputParser<?>[] parsers;
+
+    private ArgumentSignature(List<Class<?>> types, InputParser<?>[] parsers) {
+        this.types = types;
+        this.parsers = parsers;
+    }
+
+    /**
+     * Compiles a signature against the parsers of a registry.
+     * Prefer {@link InputParserRegistry#signature(Class[])}, which caches the result.
+     *
+     * @param registry The registry providing the parser of each argument.
+     * @param types The types of the arguments, in order.
+     * @return The compiled signature.
+     * @throws IllegalArgumentException If there are no types, or no parser is registered for one of them.
+     */
+    public static ArgumentSignature compile(@NotNull InputParserRegistry registry, @NotNull List<Class<?>> types) {
+        if (types.isEmpty()) {
+            throw new IllegalArgumentException("A signature needs at least one argument.");
+        }
+
+        InputParser<?>[] parsers = new InputParser<?>[types.size()];
+        for (int i = 0; i < parsers.length; i++) {
+            Class<?> type = types.get(i);
+            parsers[i] = registry.findChain(type).orElseThrow(() -> new IllegalArgumentException("No parser found for argument type: " + type.getName()));
+        }
+        return new ArgumentSignature(List.copyOf(types), parsers);
+    }
+
+    @Override
+    public Optional<Arguments> parse(CharSequence input, int start, int end) {
+        Object[] values = new Object[parsers.length];
+        int i = start;
+        for (int argument = 0; argument < parsers.length; argument++) {
+            while (i < end && Character.isWhitespace(input.charAt(i))) {
+                i++;
+            }
+
+            if (i == end) {
+                // Missing argument
+                return Optional.empty();
+            }
+
+            int tokenEnd;
+            if (argument == parsers.length - 1) {
+                // The last argument takes the rest of the message
+                tokenEnd = end;
+                while (Character.isWhitespace(input.charAt(tokenEnd - 1))) {
+                    tokenEnd--;
+                }
+            } else {
+                tokenEnd = i;
+                while (tokenEnd < end && !Character.isWhitespace(input.charAt(tokenEnd))) {
+                    tokenEnd++;
+                }
+            }
+
+            Optional<?> value = parsers[argument].parse(input, i, tokenEnd);
+            if (value.isEmpty()) {
+                return Optional.empty();
+            }
+
+            values[argument] = value.get();
+            i = tokenEnd;
+        }
+        return Optional.of(new Arguments(this, values));
+    }
+
+    /**
+     * Gets the types of the arguments.
+     *
+     * @return The types, in order.
+     */
+    public List<Class<?>> getTypes() {
+        return types;
+    }
+
+    @Override
+    public String toString() {
+        return "ArgumentSignature" + types;
+    }
+
+}
@@ -0,0 +1,68 @@
+package tsp.hexcore.input.parser;
+
+import java.util.Arrays;
+
+/**
+ * The typed values parsed from a single message by an {@link ArgumentSignature}, in signature order.
+ *
+ * @author TheSilentPro (Silent)
+ */
+public final class Arguments {
+
+    private final ArgumentSignature signature;
+    private final Object[] values;
+
+    Arguments(ArgumentSignature signature, Object[] values) {
+        this.signature = signature;
+        this.values = values;
+    }
+
+    /**
+     * Gets the value of an argument.
+     *
+     * @param index The index of the argument.
+     * @param <T> The type of the argument, as declared by the signature.
+     * @return The value.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(int index) {
+        return (T) values[index];
+    }
+
+    /**
+     * Gets the value of an argument, checking it against the expected type.
+     *
+     * @param index The index of the argument.
+     * @param type The expected type.
+     * @param <T> The type of the argument.
+     * @return The value.
+     * @throws ClassCastException If the argument is not of the expected type.
+     */
+    public <T> T get(int index, Class<T> type) {
+        return type.cast(values[index]);
+    }
+
+    /**
+     * Gets the number of arguments.
+     *
+     * @return The number of arguments.
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Gets the signature the arguments were parsed with.
+     *
+     * @return The signature.
+     */
+    public ArgumentSignature getSignature() {
+        return signature;
+    }
+
+    @Override
+    public String toString() {
+        return "Arguments" + Arrays.toString(values);
+    }
+
+}
@@ -0,0 +1,71 @@
+package tsp.hexcore.input.parser;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Region based implementations of the {@link InputParserRegistry#registerDefaults() default parsers}
+ * that have no counterpart in {@link tsp.hexcore.util}.
+ *
+ * @author TheSilentPro (Silent)
+ */
+final class DefaultParsers {
+
+    private static final int UUID_LENGTH = 36;
+
+    static final LiteralParser<Boolean> BOOLEAN = LiteralParser.<Boolean>builder()
+            .add(true, "true", "yes", "on")
+            .add(false, "false", "no", "off")
+            .build();
+
+    private DefaultParsers() {
+        throw new UnsupportedOperationException("Utility class.");
+    }
+
+    static Optional<String> parseString(CharSequence input, int start, int end) {
+        // Free for a region spanning a whole string
+        return Optional.of(input.subSequence(start, end).toString());
+    }
+
+    static Optional<UUID> parseUuid(CharSequence input, int start, int end) {
+        if (end - start != UUID_LENGTH) {
+            // UUID#fromString also accepts shortened groups, rare enough to take the slow path
+            return fromString(input, start, end);
+        }
+
+        // Canonical form: 8-4-4-4-12 hexadecimal digits
+        long mostSigBits = 0;
+        long leastSigBits = 0;
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = input.charAt(start + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    // Groups of other lengths that happen to add up, e.g. 1-1-1-1-31 digits
+                    return fromString(input, start, end);
+                }
+                continue;
+            }
+
+            int digit = Character.digit(c, 16);
+            if (digit < 0) {
+                return fromString(input, start, end);
+            }
+
+            if (i < 19) {
+                mostSigBits = (mostSigBits << 4) | digit;
+            } else {
+                leastSigBits = (leastSigBits << 4) | digit;
+            }
+        }
+        return Optional.of(new UUID(mostSigBits, leastSigBits));
+    }
+
+    private static Optional<UUID> fromString(CharSequence input, int start, int end) {
+        try {
+            return Optional.of(UUID.fromString(input.subSequence(start, end).toString()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+}
@@ -0,0 +1,74 @@
+package tsp.hexcore.input.parser;
+
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A chain of parsers for one type, tried in order until one succeeds.
+ * For example, a {@link java.time.Duration} can be accepted both as {@code 1h} and as {@code 01:00:00}.
+ *
+ * @param <T> The type that the input will be parsed into.
+ * @author TheSilentPro (Silent)
+ * @see InputParserRegistry#findChain(Class)
+ */
+final class FallbackParser<T> implements InputParser<T> {
+
+    private final InputParser<T>[] parsers;
+
+    @SuppressWarnings("unchecked")
+    private FallbackParser(List<InputParser<T>> parsers) {
+        this.parsers = (InputParser<T>[]) parsers.toArray(new InputParser<?>[0]);
+    }
+
+    /**
+     * Compiles the parsers into a single one.
+     *
+     * @param parsers The parsers, in order.
+     * @param <T> The type that the input will be parsed into.
+     * @return The single parser if there is only one, a chain otherwise, or empty if there are none.
+     */
+    static <T> Optional<InputParser<T>> of(List<InputParser<T>> parsers) {
+        return switch (parsers.size()) {
+            case 0 -> Optional.empty();
+            case 1 -> Optional.of(parsers.get(0));
+            default -> Optional.of(new FallbackParser<>(parsers));
+        };
+    }
+
+    @Override
+    public Optional<T> parse(String input) {
+        for (InputParser<T> parser : parsers) {
+            Optional<T> result = parser.parse(input);
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<T> parse(String input, @Nullable AsyncPlayerChatEvent event) {
+        for (InputParser<T> parser : parsers) {
+            Optional<T> result = parser.parse(input, event);
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<T> parse(CharSequence input, int start, int end) {
+        for (InputParser<T> parser : parsers) {
+            Optional<T> result = parser.parse(input, start, end);
+            if (result.isPresent()) {
+                return result;
+            }
+        }
+        return Optional.empty();
+    }
+
+}
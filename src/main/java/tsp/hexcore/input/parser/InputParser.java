@@ -1,5 +1,8 @@
 package tsp.hexcore.input.parser;
 
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.jetbrains.annotations.Nullable;
+
 import java.util.Optional;
 
 /**
@@ -18,4 +21,30 @@ public interface InputParser<T> {
      */
     Optional<T> parse(String input);
 
+    /**
+     * Parses the given input string in the context of the chat event it was sent with,
+     * for example to honour the locale of the player.
+     *
+     * @param input The input string to parse.
+     * @param event The event source of the input, may be {@code null}.
+     * @return An {@link Optional} containing the parsed value if successful, or an empty {@link Optional} if parsing fails.
+     */
+    default Optional<T> parse(String input, @Nullable AsyncPlayerChatEvent event) {
+        return parse(input);
+    }
+
+    /**
+     * Parses a region of the given characters, for example a single argument of a chat message.
+     * By default the region is copied into a string for {@link #parse(String)}, parsers that can read
+     * the characters in place should implement {@link RegionParser} instead.
+     *
+     * @param input The characters.
+     * @param start The start of the region, inclusive.
+     * @param end The end of the region, exclusive.
+     * @return An {@link Optional} containing the parsed value if successful, or an empty {@link Optional} if parsing fails.
+     */
+    default Optional<T> parse(CharSequence input, int start, int end) {
+        return parse(input.subSequence(start, end).toString());
+    }
+
 }
\ No newline at end of file
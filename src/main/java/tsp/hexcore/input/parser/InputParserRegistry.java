@@ -1,5 +1,6 @@
 package tsp.hexcore.input.parser;
 
+import org.bukkit.Material;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import tsp.hexcore.util.DurationParser;
@@ -12,6 +13,8 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * A registry that manages type-based {@link InputParser}s.
  * It allows finding, registering, and updating parsers for various types of inputs.
+ * The parsers of a type are held as an immutable snapshot that changes are published as,
+ * so lookups never block and are safe during concurrent changes.
  *
  * @author TheSilentPro (Silent)
  */
@@ -21,6 +24,7 @@ public interface InputParserRegistry {
      * Creates a new {@link InputParserRegistry} with the provided map for storing parsers.
      *
      * @param map The map implementation used to store parsers, keyed by input types.
+     *            Changes are only atomic if it is a {@link java.util.concurrent.ConcurrentMap}.
      * @return A new instance of {@link InputParserRegistry}.
      */
     static InputParserRegistry newRegistry(Map<Class<?>, List<InputParser<?>>> map) {
@@ -38,6 +42,11 @@ public interface InputParserRegistry {
 
     /**
      * Finds a parser for the specified type.
+     * If none is registered for the type itself, the type falls back to the parser of its nearest registered
+     * superclass or interface, accepting only values of the specified type. Numbers are converted to a requested
+     * wrapper type, such as {@link Integer} from a {@link Number} parser, if they fit it exactly.
+     * Enums without a parser of their own are also parsed by the names of their constants.
+     * Lookups are memoized, so repeated calls are a single lock-free read.
      *
      * @param type The class type of the input that needs to be parsed.
      * @param <T> The type of the parsed value.
@@ -46,7 +55,7 @@ public interface InputParserRegistry {
     @NotNull <T> Optional<InputParser<T>> find(@NotNull Class<T> type);
 
     /**
-     * Finds all parsers for the specified type.
+     * Finds all parsers for the specified type, resolved the same way as {@link #find(Class)}.
      *
      * @param type The class type of the input that needs to be parsed.
      * @param <T> The type of the parsed value.
@@ -54,6 +63,19 @@ public interface InputParserRegistry {
      */
     @NotNull <T> List<InputParser<T>> findAll(@NotNull Class<T> type);
 
+    /**
+     * Finds the parsers for the specified type, resolved the same way as {@link #find(Class)},
+     * compiled into a single parser that tries them in order until one succeeds.
+     *
+     * @param type The class type of the input that needs to be parsed.
+     * @param <T> The type of the parsed value.
+     * @return An {@link Optional} containing the parser, if any parser is present.
+     */
+    @NotNull
+    default <T> Optional<InputParser<T>> findChain(@NotNull Class<T> type) {
+        return FallbackParser.of(findAll(type));
+    }
+
     /**
      * Registers a new {@link InputParser} for the specified class type.
      *
@@ -64,7 +86,8 @@ public interface InputParserRegistry {
     <T> void register(@NotNull Class<T> type, @NotNull InputParser<T> parser);
 
     /**
-     * Updates an existing {@link InputParser} for the specified class type.
+     * Updates the primary {@link InputParser} for the specified class type,
+     * i.e. the one returned by {@link #find(Class)}. An equal parser registered further down is moved to the front.
      * This operation is marked as experimental and may change in future releases.
      *
      * @param type The class type for the parser.
@@ -76,36 +99,67 @@ public interface InputParserRegistry {
     <T> void update(@NotNull Class<T> type, @NotNull InputParser<T> parser);
 
     /**
-     * Registers a set of default parsers for common types such as String, Integer, Boolean, Duration, etc.
+     * Replaces a registered {@link InputParser} for the specified class type, keeping its position.
+     * Inputs that are already waiting use the new parser for their next message, which allows hot-swapping
+     * parsers, e.g. on plugin reload.
+     *
+     * @param type The class type for the parser.
+     * @param oldParser The registered parser.
+     * @param newParser The parser to take its place.
+     * @param <T> The type of the parsed value.
+     * @return {@code true} if the old parser was registered and has been replaced.
+     */
+    <T> boolean replace(@NotNull Class<T> type, @NotNull InputParser<T> oldParser, @NotNull InputParser<T> newParser);
+
+    /**
+     * Unregisters an {@link InputParser} for the specified class type.
+     *
+     * @param type The class type for the parser.
+     * @param parser The parser to unregister.
+     * @param <T> The type of the parsed value.
+     * @return {@code true} if the parser was registered.
+     */
+    <T> boolean unregister(@NotNull Class<T> type, @NotNull InputParser<T> parser);
+
+    /**
+     * Unregisters all {@link InputParser}s for the specified class type.
+     *
+     * @param type The class type.
+     * @return {@code true} if any parser was registered.
+     */
+    boolean unregister(@NotNull Class<?> type);
+
+    /**
+     * Gets the compiled {@link ArgumentSignature} for the given argument types, backed by the parsers of this registry.
+     * Signatures are compiled once and cached, until the parsers of the registry change.
+     *
+     * @param types The types of the arguments, in order.
+     * @return The compiled signature.
+     * @throws IllegalArgumentException If there are no types, or no parser is registered for one of them.
+     */
+    default ArgumentSignature signature(@NotNull Class<?>... types) {
+        return ArgumentSignature.compile(this, List.of(types));
+    }
+
+    /**
+     * Registers a set of default parsers for common types such as String, Integer, Boolean, Duration, Material, etc.
      * This method is automatically invoked to populate the registry with commonly used parsers.
+     * All of them are {@link RegionParser}s.
      *
      * @return The {@link InputParserRegistry} instance with the default parsers registered.
      */
     default InputParserRegistry registerDefaults() {
-        register(String.class, Optional::of);
-        register(Number.class, NumberParser::parse);
-        register(Integer.class, NumberParser::parseInteger);
-        register(Long.class, NumberParser::parseLong);
-        register(Double.class, NumberParser::parseDouble);
-        register(Float.class, NumberParser::parseFloat);
-        register(Byte.class, NumberParser::parseByte);
-        register(Boolean.class, s -> {
-            if (s.equalsIgnoreCase("true") || s.equalsIgnoreCase("yes") || s.equalsIgnoreCase("on")) {
-                return Optional.of(true);
-            } else if (s.equalsIgnoreCase("false") || s.equalsIgnoreCase("No") || s.equalsIgnoreCase("off")) {
-                return Optional.of(false);
-            } else {
-                return Optional.empty();
-            }
-        });
-        register(Duration.class, DurationParser::parseSafely);
-        register(UUID.class, s -> {
-            try {
-                return Optional.of(UUID.fromString(s));
-            } catch (IllegalArgumentException e) {
-                return Optional.empty();
-            }
-        });
+        register(String.class, (RegionParser<String>) DefaultParsers::parseString);
+        register(Number.class, new LocalizedNumberParser());
+        register(Integer.class, (RegionParser<Integer>) NumberParser::parseInteger);
+        register(Long.class, (RegionParser<Long>) NumberParser::parseLong);
+        register(Double.class, (RegionParser<Double>) NumberParser::parseDouble);
+        register(Float.class, (RegionParser<Float>) NumberParser::parseFloat);
+        register(Byte.class, (RegionParser<Byte>) NumberParser::parseByte);
+        register(Boolean.class, DefaultParsers.BOOLEAN);
+        register(Duration.class, (RegionParser<Duration>) DurationParser::parseSafely);
+        register(UUID.class, (RegionParser<UUID>) DefaultParsers::parseUuid);
+        register(Material.class, LiteralParser.ofMaterial());
         return this;
     }
 
@@ -1,8 +1,14 @@
 package tsp.hexcore.input.parser;
 
+import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
 
 /**
  * @author TheSilentPro (Silent)
@@ -10,6 +16,9 @@ import java.util.*;
 class InputParserRegistryImpl implements InputParserRegistry {
 
     private final Map<Class<?>, List<InputParser<?>>> parsers;
+    private final Map<List<Class<?>>, ArgumentSignature> signatures = new ConcurrentHashMap<>();
+    // Replaced as a whole whenever parsers change, a ClassValue can not be cleared
+    private volatile ClassValue<Resolution> resolutions = newResolutions();
 
     InputParserRegistryImpl(Map<Class<?>, List<InputParser<?>>> map) {
         this.parsers = map;
@@ -17,25 +26,31 @@ class InputParserRegistryImpl implements InputParserRegistry {
 
     @NotNull
     public <T> Optional<InputParser<T>> find(@NotNull Class<T> type) {
-        List<InputParser<?>> parsers = this.parsers.get(type);
-        if (parsers == null || parsers.isEmpty()) {
-            return Optional.empty();
-        }
-
-        //noinspection unchecked,SequencedCollectionMethodCanBeUsed
-        return Optional.of((InputParser<T>) parsers.get(0));
+        //noinspection unchecked
+        return (Optional<InputParser<T>>) (Optional<?>) resolutions.get(type).first;
     }
 
     @NotNull
     public <T> List<InputParser<T>> findAll(@NotNull Class<T> type) {
         //noinspection unchecked
-        List<InputParser<T>> parsers = (List<InputParser<T>>) (List<?>) this.parsers.get(type);
+        return (List<InputParser<T>>) (List<?>) resolutions.get(type).all;
+    }
 
-        if (parsers == null || parsers.isEmpty()) {
-            return List.of();
-        }
+    @NotNull
+    @Override
+    public <T> Optional<InputParser<T>> findChain(@NotNull Class<T> type) {
+        //noinspection unchecked
+        return (Optional<InputParser<T>>) (Optional<?>) resolutions.get(type).chain;
+    }
 
-        return Collections.unmodifiableList(parsers);
+    @Override
+    public ArgumentSignature signature(@NotNull Class<?>... types) {
+        List<Class<?>> key = List.of(types);
+        ArgumentSignature signature = signatures.get(key);
+        if (signature == null) {
+            signature = signatures.computeIfAbsent(key, k -> ArgumentSignature.compile(this, k));
+        }
+        return signature;
     }
 
     /**
@@ -46,17 +61,305 @@ class InputParserRegistryImpl implements InputParserRegistry {
      * @param <T> The type
      */
     public <T> void register(@NotNull Class<T> type, @NotNull InputParser<T> parser) {
-        List<InputParser<?>> list = this.parsers.computeIfAbsent(type, t -> new ArrayList<>());
-        if (!list.contains(parser)) {
-            list.add(parser);
-        }
+        mutate(type, list -> {
+            if (list.contains(parser)) {
+                return list;
+            }
+
+            List<InputParser<?>> copy = new ArrayList<>(list);
+            copy.add(parser);
+            return copy;
+        });
     }
 
     public <T> void update(@NotNull Class<T> type, @NotNull InputParser<T> parser) {
-        List<InputParser<?>> list = this.parsers.computeIfAbsent(type, t -> new ArrayList<>());
-        if (list.contains(parser)) {
-            list.set(list.indexOf(parser), parser);
+        mutate(type, list -> {
+            List<InputParser<?>> copy = new ArrayList<>(list);
+            copy.remove(parser);
+            copy.add(0, parser);
+            return copy;
+        });
+    }
+
+    @Override
+    public <T> boolean replace(@NotNull Class<T> type, @NotNull InputParser<T> oldParser, @NotNull InputParser<T> newParser) {
+        boolean[] replaced = new boolean[1];
+        mutate(type, list -> {
+            int index = list.indexOf(oldParser);
+            replaced[0] = index >= 0;
+            if (!replaced[0]) {
+                return list;
+            }
+
+            List<InputParser<?>> copy = new ArrayList<>(list);
+            copy.set(index, newParser);
+            // The new parser may already have been registered as well
+            for (int i = copy.size() - 1; i >= 0; i--) {
+                if (i != index && copy.get(i).equals(newParser)) {
+                    copy.remove(i);
+                }
+            }
+            return copy;
+        });
+        return replaced[0];
+    }
+
+    @Override
+    public <T> boolean unregister(@NotNull Class<T> type, @NotNull InputParser<T> parser) {
+        boolean[] removed = new boolean[1];
+        mutate(type, list -> {
+            removed[0] = list.contains(parser);
+            if (!removed[0]) {
+                return list;
+            }
+
+            List<InputParser<?>> copy = new ArrayList<>(list);
+            copy.remove(parser);
+            return copy;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public boolean unregister(@NotNull Class<?> type) {
+        boolean removed = parsers.remove(type) != null;
+        invalidate();
+        return removed;
+    }
+
+    /**
+     * Atomically replaces the parsers of a type with a new immutable snapshot, then invalidates derived state.
+     * Readers never observe a list being modified, only the snapshot before or after the change.
+     *
+     * @param type The type.
+     * @param function Computes the new parsers from the current ones, may return its argument for no change.
+     */
+    private void mutate(Class<?> type, UnaryOperator<List<InputParser<?>>> function) {
+        parsers.compute(type, (t, current) -> {
+            List<InputParser<?>> list = current != null ? current : List.of();
+            List<InputParser<?>> updated = function.apply(list);
+            if (updated == list) {
+                return current;
+            }
+            return updated.isEmpty() ? null : List.copyOf(updated);
+        });
+        invalidate();
+    }
+
+    /**
+     * Drops everything derived from the registered parsers.
+     * Called after a change, so a resolution computed afterward always sees it.
+     */
+    private void invalidate() {
+        resolutions = newResolutions();
+        signatures.clear();
+    }
+
+    private ClassValue<Resolution> newResolutions() {
+        return new ClassValue<>() {
+            @Override
+            protected Resolution computeValue(Class<?> type) {
+                return resolve(type);
+            }
+        };
+    }
+
+    /**
+     * Resolves the parsers for a type: the ones registered for the type itself, or else the ones of the nearest
+     * superclass, and then of the nearest interface. Enums are also parsed by the names of their constants,
+     * after any parsers of a supertype.
+     *
+     * @param type The type.
+     * @return The resolution.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Resolution resolve(Class<?> type) {
+        List<InputParser<?>> registered = registered(type);
+        if (registered != null) {
+            return new Resolution(registered);
+        }
+
+        List<InputParser<?>> inherited = inherited(type);
+        if (type.isEnum()) {
+            List<InputParser<?>> parsers = inherited != null ? new ArrayList<>(inherited) : new ArrayList<>(1);
+            parsers.add(LiteralParser.ofEnum((Class) type));
+            return new Resolution(List.copyOf(parsers));
+        }
+        return inherited != null ? new Resolution(inherited) : Resolution.EMPTY;
+    }
+
+    /**
+     * Finds the parsers of the nearest superclass, or else of the nearest interface of a type.
+     *
+     * @param type The type.
+     * @return The parsers, narrowed to the type, or {@code null} if no supertype has any.
+     */
+    @Nullable
+    private List<InputParser<?>> inherited(Class<?> type) {
+        List<InputParser<?>> registered;
+        for (Class<?> superclass = type.getSuperclass(); superclass != null; superclass = superclass.getSuperclass()) {
+            registered = registered(superclass);
+            if (registered != null) {
+                return narrow(type, registered);
+            }
+        }
+
+        // Breadth first, so directly implemented interfaces win over inherited ones
+        Set<Class<?>> visited = new HashSet<>();
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            queue.addAll(Arrays.asList(c.getInterfaces()));
+        }
+        while (!queue.isEmpty()) {
+            Class<?> candidate = queue.poll();
+            if (!visited.add(candidate)) {
+                continue;
+            }
+
+            registered = registered(candidate);
+            if (registered != null) {
+                return narrow(type, registered);
+            }
+            queue.addAll(Arrays.asList(candidate.getInterfaces()));
+        }
+        return null;
+    }
+
+    @Nullable
+    private List<InputParser<?>> registered(Class<?> type) {
+        List<InputParser<?>> list = parsers.get(type);
+        // Snapshots are immutable, lists from a user supplied map are copied
+        return list == null || list.isEmpty() ? null : List.copyOf(list);
+    }
+
+    /**
+     * Wraps the parsers of a supertype, so they only produce values of the requested type.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<InputParser<?>> narrow(Class<?> type, List<InputParser<?>> parsers) {
+        List<InputParser<?>> narrowed = new ArrayList<>(parsers.size());
+        for (InputParser<?> parser : parsers) {
+            narrowed.add(new NarrowingParser(type, parser));
         }
+        return List.copyOf(narrowed);
+    }
+
+    /**
+     * The memoized parsers of a type, kept in the shape {@link #find(Class)}, {@link #findAll(Class)}
+     * and {@link #findChain(Class)} return them.
+     */
+    private static final class Resolution {
+
+        private static final Resolution EMPTY = new Resolution(List.of());
+
+        private final Optional<InputParser<?>> first;
+        private final List<InputParser<?>> all;
+        private final Optional<InputParser<?>> chain;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Resolution(List<InputParser<?>> all) {
+            this.first = all.isEmpty() ? Optional.empty() : Optional.of(all.get(0));
+            this.all = all;
+            this.chain = FallbackParser.of((List) all);
+        }
+
+    }
+
+    /**
+     * A parser of a supertype, treating values that are not of the requested type as a mismatch.
+     * Numbers are converted to a requested wrapper type if they fit it exactly, as parsers of {@link Number}
+     * produce {@link Long}s and {@link Double}s.
+     */
+    private static final class NarrowingParser<T> implements InputParser<T> {
+
+        private final Class<T> type;
+        private final InputParser<? super T> parser;
+
+        private NarrowingParser(Class<T> type, InputParser<? super T> parser) {
+            this.type = type;
+            this.parser = parser;
+        }
+
+        @Override
+        public Optional<T> parse(String input) {
+            return narrow(parser.parse(input));
+        }
+
+        @Override
+        public Optional<T> parse(String input, @Nullable AsyncPlayerChatEvent event) {
+            return narrow(parser.parse(input, event));
+        }
+
+        @Override
+        public Optional<T> parse(CharSequence input, int start, int end) {
+            return narrow(parser.parse(input, start, end));
+        }
+
+        @SuppressWarnings("unchecked")
+        private Optional<T> narrow(Optional<?> result) {
+            if (result.isEmpty() || type.isInstance(result.get())) {
+                return (Optional<T>) result;
+            }
+
+            if (result.get() instanceof Number number) {
+                return Optional.ofNullable(type.cast(convert(type, number)));
+            }
+            return Optional.empty();
+        }
+
+        /**
+         * Converts a number to a wrapper type, without losing its value.
+         *
+         * @return The converted number, or {@code null} if it does not fit the type.
+         */
+        @Nullable
+        private static Number convert(Class<?> type, Number number) {
+            if (type == Double.class) {
+                return number.doubleValue();
+            }
+            if (type == Float.class) {
+                float value = number.floatValue();
+                return Float.isInfinite(value) && !Double.isInfinite(number.doubleValue()) ? null : value;
+            }
+
+            long value;
+            if (number instanceof Double || number instanceof Float) {
+                double d = number.doubleValue();
+                // Also rejects NaN, and values beyond a long
+                if (d != Math.rint(d) || d < -0x1p63 || d >= 0x1p63) {
+                    return null;
+                }
+                value = (long) d;
+            } else if (number instanceof BigDecimal decimal) {
+                try {
+                    value = decimal.longValueExact();
+                } catch (ArithmeticException e) {
+                    return null;
+                }
+            } else if (number instanceof BigInteger integer) {
+                if (integer.bitLength() > 63) {
+                    return null;
+                }
+                value = integer.longValue();
+            } else {
+                value = number.longValue();
+            }
+
+            if (type == Long.class) {
+                return value;
+            }
+            if (type == Integer.class) {
+                return value == (int) value ? (int) value : null;
+            }
+            if (type == Short.class) {
+                return value == (short) value ? (short) value : null;
+            }
+            if (type == Byte.class) {
+                return value == (byte) value ? (byte) value : null;
+            }
+            return null;
+        }
+
     }
 
 }
@@ -0,0 +1,251 @@
+package tsp.hexcore.input.parser;
+
+import org.bukkit.Material;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * A parser accepting a fixed set of words, ignoring case, each standing for a value.
+ * For example the constants of an enum, or the choices of a prompt with their aliases.
+ * <p>
+ * The words are compiled into a trie once, so parsing walks the input a single time, without copying or lowercasing it,
+ * and takes time in the length of the input however many words there are. Results are shared, parsing allocates nothing.
+ * </p>
+ *
+ * @param <T> The type that the input will be parsed into.
+ * @author TheSilentPro (Silent)
+ * @see #builder()
+ */
+public final class LiteralParser<T> implements RegionParser<T> {
+
+    // The edges of node n are at [edgeStart[n], edgeStart[n + 1]), sorted by character. The root is node 0
+    private final int[] edgeStart;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+    // The result of the word ending at each node, empty if none does
+    private final Optional<T>[] results;
+    private final int size;
+
+    @SuppressWarnings("unchecked")
+    private LiteralParser(Node<T> root, int size) {
+        List<Node<T>> nodes = new ArrayList<>();
+        Deque<Node<T>> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Node<T> node = queue.poll();
+            node.index = nodes.size();
+            nodes.add(node);
+            queue.addAll(node.children.values());
+        }
+
+        this.edgeStart = new int[nodes.size() + 1];
+        this.edgeChars = new char[nodes.size() - 1];
+        this.edgeTargets = new int[nodes.size() - 1];
+        this.results = (Optional<T>[]) new Optional<?>[nodes.size()];
+        this.size = size;
+        int edge = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            Node<T> node = nodes.get(i);
+            edgeStart[i] = edge;
+            for (Map.Entry<Character, Node<T>> child : node.children.entrySet()) {
+                edgeChars[edge] = child.getKey();
+                edgeTargets[edge] = child.getValue().index;
+                edge++;
+            }
+            results[i] = Optional.ofNullable(node.value);
+        }
+        edgeStart[nodes.size()] = edge;
+    }
+
+    /**
+     * Creates a builder for a parser of words.
+     *
+     * @param <T> The type that the input will be parsed into.
+     * @return A new builder.
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Creates a parser accepting the names of the constants of an enum, ignoring case.
+     *
+     * @param type The enum type.
+     * @param <E> The enum type.
+     * @return The parser.
+     */
+    public static <E extends Enum<E>> LiteralParser<E> ofEnum(@NotNull Class<E> type) {
+        Builder<E> builder = builder();
+        for (E constant : type.getEnumConstants()) {
+            builder.add(constant, constant.name());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets the parser accepting the materials {@link Material#matchMaterial(String)} matches, apart from legacy ones:
+     * the name ignoring case, with spaces instead of underscores, or with the {@code minecraft:} namespace,
+     * e.g. {@code DIAMOND_SWORD}, {@code diamond sword} and {@code minecraft:diamond_sword}.
+     * Compiled once, on first use.
+     *
+     * @return The parser.
+     */
+    public static LiteralParser<Material> ofMaterial() {
+        return MaterialHolder.PARSER;
+    }
+
+    /**
+     * Creates a parser accepting a set of choices, ignoring case. The value is the choice as given here.
+     *
+     * @param choices The choices.
+     * @return The parser.
+     * @see Builder#add(Object, String...)
+     */
+    public static LiteralParser<String> ofChoices(@NotNull String... choices) {
+        Builder<String> builder = builder();
+        for (String choice : choices) {
+            builder.add(choice, choice);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Optional<T> parse(CharSequence input, int start, int end) {
+        int node = 0;
+        for (int i = start; i < end; i++) {
+            char c = fold(input.charAt(i));
+            int low = edgeStart[node];
+            int high = edgeStart[node + 1] - 1;
+            node = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char edge = edgeChars[mid];
+                if (edge < c) {
+                    low = mid + 1;
+                } else if (edge > c) {
+                    high = mid - 1;
+                } else {
+                    node = edgeTargets[mid];
+                    break;
+                }
+            }
+
+            if (node < 0) {
+                return Optional.empty();
+            }
+        }
+        return results[node];
+    }
+
+    /**
+     * Gets the number of words this parser accepts.
+     *
+     * @return The number of words.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Folds the case of a character, the same way {@link String#equalsIgnoreCase(String)} compares characters.
+     */
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * Builder for a {@link LiteralParser}.
+     *
+     * @param <T> The type that the input will be parsed into.
+     */
+    public static final class Builder<T> {
+
+        private final Node<T> root = new Node<>();
+        private final Map<String, T> words = new HashMap<>();
+
+        private Builder() {}
+
+        /**
+         * Adds the words standing for a value, e.g. a choice and its aliases.
+         *
+         * @param value The value.
+         * @param words The words, ignoring case.
+         * @return This builder.
+         * @throws IllegalArgumentException If a word is empty, or already stands for another value.
+         */
+        public Builder<T> add(@NotNull T value, @NotNull String... words) {
+            Objects.requireNonNull(value, "value");
+            for (String word : words) {
+                if (word.isEmpty()) {
+                    throw new IllegalArgumentException("Word must not be empty.");
+                }
+
+                StringBuilder folded = new StringBuilder(word.length());
+                for (int i = 0; i < word.length(); i++) {
+                    folded.append(fold(word.charAt(i)));
+                }
+
+                T previous = this.words.putIfAbsent(folded.toString(), value);
+                if (previous != null && !previous.equals(value)) {
+                    throw new IllegalArgumentException("Word " + word + " already stands for " + previous + ".");
+                }
+
+                Node<T> node = root;
+                for (int i = 0; i < folded.length(); i++) {
+                    node = node.children.computeIfAbsent(folded.charAt(i), c -> new Node<>());
+                }
+                node.value = value;
+            }
+            return this;
+        }
+
+        /**
+         * Compiles the parser.
+         *
+         * @return A new {@link LiteralParser}.
+         */
+        public LiteralParser<T> build() {
+            return new LiteralParser<>(root, words.size());
+        }
+
+    }
+
+    private static final class Node<T> {
+
+        private final TreeMap<Character, Node<T>> children = new TreeMap<>();
+        private T value;
+        private int index;
+
+    }
+
+    private static final class MaterialHolder {
+
+        private static final LiteralParser<Material> PARSER = compile();
+
+        @SuppressWarnings("deprecation")
+        private static LiteralParser<Material> compile() {
+            Builder<Material> builder = builder();
+            for (Material material : Material.values()) {
+                if (material.isLegacy()) {
+                    continue;
+                }
+
+                String name = material.name();
+                builder.add(material, name, name.replace('_', ' '), "minecraft:" + name.toLowerCase(Locale.ROOT));
+            }
+            return builder.build();
+        }
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package tsp.hexcore.input.parser;
+
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.jetbrains.annotations.Nullable;
+import tsp.hexcore.util.NumberParser;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Parses a {@link Number} using the locale of the player who sent it.
+ *
+ * @author TheSilentPro (Silent)
+ */
+final class LocalizedNumberParser implements RegionParser<Number> {
+
+    // Client locales arrive as strings such as "en_us", looked up among the available locales only
+    private static final Map<String, Locale> LOCALES = locales();
+
+    @Override
+    public Optional<Number> parse(CharSequence input, int start, int end) {
+        return NumberParser.parse(input, start, end);
+    }
+
+    @Override
+    public Optional<Number> parse(String input, @Nullable AsyncPlayerChatEvent event) {
+        if (event == null) {
+            return parse(input);
+        }
+
+        String locale = event.getPlayer().getLocale();
+        if (locale == null || locale.isEmpty()) {
+            return parse(input);
+        }
+
+        return NumberParser.parse(input, 0, input.length(), locale(locale));
+    }
+
+    /**
+     * Finds the available locale of a client locale, or of its language, falling back to {@link Locale#ROOT}.
+     *
+     * @param tag The client locale, e.g. {@code "en_us"}.
+     * @return The locale.
+     */
+    static Locale locale(String tag) {
+        String key = tag.toLowerCase(Locale.ROOT);
+        Locale locale = LOCALES.get(key);
+        if (locale == null) {
+            int separator = key.indexOf('_');
+            locale = separator > 0 ? LOCALES.get(key.substring(0, separator)) : null;
+        }
+        return locale != null ? locale : Locale.ROOT;
+    }
+
+    private static Map<String, Locale> locales() {
+        Map<String, Locale> locales = new HashMap<>();
+        for (Locale locale : Locale.getAvailableLocales()) {
+            if (locale.getVariant().isEmpty() && locale.getScript().isEmpty()) {
+                locales.put(locale.toString().toLowerCase(Locale.ROOT), locale);
+            }
+        }
+        return Map.copyOf(locales);
+    }
+
+}
@@ -0,0 +1,31 @@
+package tsp.hexcore.input.parser;
+
+import java.util.Optional;
+
+/**
+ * An {@link InputParser} that parses regions of characters in place, without copying them into a string.
+ * Parsing a whole string is a parse of the region spanning it.
+ *
+ * @param <T> The type that the input will be parsed into.
+ * @author TheSilentPro (Silent)
+ */
+@FunctionalInterface
+public interface RegionParser<T> extends InputParser<T> {
+
+    /**
+     * Parses a region of the given characters.
+     *
+     * @param input The characters.
+     * @param start The start of the region, inclusive.
+     * @param end The end of the region, exclusive.
+     * @return An {@link Optional} containing the parsed value if successful, or an empty {@link Optional} if parsing fails.
+     */
+    @Override
+    Optional<T> parse(CharSequence input, int start, int end);
+
+    @Override
+    default Optional<T> parse(String input) {
+        return parse(input, 0, input.length());
+    }
+
+}
@@ -0,0 +1,240 @@
+package tsp.hexcore.input.registry;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel that fires deadlines, such as those of {@link PendingInput}s.
+ * <p>
+ * Each level has {@value #WHEEL_SIZE} slots and covers {@value #WHEEL_BITS} more bits of the tick counter than the
+ * level below it, so any deadline fits in one of the levels and is cascaded down as time approaches it.
+ * Scheduling and cancelling are O(1) and safe from any thread: both are handed over through lock-free queues
+ * and applied by the thread calling {@link #advance(long, Consumer)}, which is the only thread touching the slots.
+ * </p>
+ *
+ * @param <E> The type of the elements that deadlines are scheduled for.
+ * @author TheSilentPro (Silent)
+ */
+final class ExpirationWheel<E> {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    // Enough levels for any non-negative tick delta
+    private static final int LEVELS = (Long.SIZE + WHEEL_BITS - 1) / WHEEL_BITS;
+
+    private final long resolution;
+    private final long origin;
+    @SuppressWarnings("unchecked")
+    private final Timeout[][] wheels = (Timeout[][]) new ExpirationWheel<?>.Timeout[LEVELS][WHEEL_SIZE];
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean advancing = new AtomicBoolean();
+    private long currentTick;
+
+    /**
+     * Creates a new wheel.
+     *
+     * @param resolution The length of one tick, in nanoseconds.
+     * @param now The current {@link System#nanoTime()}.
+     */
+    ExpirationWheel(long resolution, long now) {
+        if (resolution <= 0) {
+            throw new IllegalArgumentException("Resolution must be positive: " + resolution);
+        }
+
+        this.resolution = resolution;
+        this.origin = now;
+    }
+
+    /**
+     * Schedules the element to be expired at the given deadline.
+     *
+     * @param element The element.
+     * @param deadline The {@link System#nanoTime()} at which the element expires.
+     * @return The handle that can be used to cancel the deadline.
+     */
+    Timeout schedule(E element, long deadline) {
+        // Round up so an input is never fired before its deadline
+        long tick = Math.max(0, Math.ceilDiv(deadline - origin, resolution));
+        Timeout timeout = new Timeout(element, tick);
+        scheduled.offer(timeout);
+        return timeout;
+    }
+
+    /**
+     * Applies pending schedules and cancellations, then fires every deadline up to {@code now}.
+     * Concurrent calls are skipped rather than blocked.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     * @param action The action receiving each expired element.
+     */
+    void advance(long now, Consumer<? super E> action) {
+        if (!advancing.compareAndSet(false, true)) {
+            return;
+        }
+
+        RuntimeException failure = null;
+        try {
+            Timeout timeout;
+            while ((timeout = cancelled.poll()) != null) {
+                unlink(timeout);
+            }
+
+            while ((timeout = scheduled.poll()) != null) {
+                if (timeout.cancelled) {
+                    continue;
+                }
+
+                // The slot of the current tick has already fired
+                if (timeout.tick <= currentTick) {
+                    failure = fire(timeout, action, failure);
+                } else {
+                    place(timeout);
+                }
+            }
+
+            long target = (now - origin) / resolution;
+            while (currentTick < target) {
+                currentTick++;
+                cascade();
+                int slot = (int) (currentTick & WHEEL_MASK);
+                timeout = wheels[0][slot];
+                wheels[0][slot] = null;
+                while (timeout != null) {
+                    Timeout next = timeout.next;
+                    timeout.detach();
+                    failure = fire(timeout, action, failure);
+                    timeout = next;
+                }
+            }
+        } finally {
+            advancing.set(false);
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Re-distributes the higher level slots that the current tick has just reached.
+     */
+    private void cascade() {
+        int level = 1;
+        while (level < LEVELS && (currentTick & ((1L << (level * WHEEL_BITS)) - 1)) == 0) {
+            level++;
+        }
+
+        // Highest level first, its timeouts may land in a lower slot that is due now
+        for (int l = level - 1; l >= 1; l--) {
+            int slot = (int) (currentTick >>> (l * WHEEL_BITS)) & WHEEL_MASK;
+            Timeout timeout = wheels[l][slot];
+            wheels[l][slot] = null;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                timeout.detach();
+                if (!timeout.cancelled) {
+                    place(timeout);
+                }
+                timeout = next;
+            }
+        }
+    }
+
+    /**
+     * Links the timeout into the slot matching its tick, which must not be before the current tick.
+     *
+     * @param timeout The timeout.
+     */
+    private void place(Timeout timeout) {
+        // The highest bit in which the deadline differs from now determines the level
+        long diff = timeout.tick ^ currentTick;
+        int level = diff == 0 ? 0 : (Long.SIZE - 1 - Long.numberOfLeadingZeros(diff)) / WHEEL_BITS;
+        int slot = (int) (timeout.tick >>> (level * WHEEL_BITS)) & WHEEL_MASK;
+
+        Timeout head = wheels[level][slot];
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+        wheels[level][slot] = timeout;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.level < 0) {
+            return;
+        }
+
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            wheels[timeout.level][timeout.slot] = timeout.next;
+        }
+
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.detach();
+    }
+
+    private RuntimeException fire(Timeout timeout, Consumer<? super E> action, RuntimeException failure) {
+        if (timeout.cancelled) {
+            return failure;
+        }
+
+        // A failing handler must not strand the rest of the slot
+        try {
+            action.accept(timeout.element);
+        } catch (RuntimeException e) {
+            if (failure == null) {
+                return e;
+            }
+            failure.addSuppressed(e);
+        }
+        return failure;
+    }
+
+    /**
+     * A scheduled deadline.
+     */
+    final class Timeout {
+
+        private final E element;
+        private final long tick;
+        private volatile boolean cancelled;
+
+        // Owned by the advancing thread
+        private Timeout prev;
+        private Timeout next;
+        private int level = -1;
+        private int slot;
+
+        private Timeout(E element, long tick) {
+            this.element = element;
+            this.tick = tick;
+        }
+
+        /**
+         * Cancels the deadline. The timeout is unlinked on the next {@link #advance(long, Consumer)}.
+         */
+        void cancel() {
+            if (!cancelled) {
+                cancelled = true;
+                ExpirationWheel.this.cancelled.offer(this);
+            }
+        }
+
+        private void detach() {
+            prev = null;
+            next = null;
+            level = -1;
+        }
+
+    }
+
+}
@@ -0,0 +1,136 @@
+package tsp.hexcore.input.registry;
+
+import org.jetbrains.annotations.NotNull;
+import tsp.hexcore.input.flow.FlowContext;
+import tsp.hexcore.input.flow.FlowStep;
+import tsp.hexcore.input.flow.InputFlow;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * The position of a player in a running {@link InputFlow}, and the answers collected so far.
+ * This is all the registry holds for a running flow, the steps themselves are shared.
+ * Changes are made by the registry while holding the monitor of the cursor.
+ *
+ * @author TheSilentPro (Silent)
+ */
+final class FlowCursor implements FlowContext {
+
+    private final UUID id;
+    private final InputFlow flow;
+    private final Object[] answers;
+    private volatile FlowStep<?> step;
+    private int mismatches;
+    private boolean expiring;
+    private long deadline;
+    private boolean ended;
+    private ExpirationWheel<?>.Timeout timeout;
+
+    FlowCursor(UUID id, InputFlow flow) {
+        this.id = id;
+        this.flow = flow;
+        this.answers = new Object[flow.getSteps().size()];
+    }
+
+    /**
+     * Moves to a step, starting its timeout.
+     *
+     * @param index The index of the step.
+     * @param now The current {@link System#nanoTime()}.
+     */
+    void enter(int index, long now) {
+        this.step = flow.getStep(index);
+        this.mismatches = 0;
+
+        Duration timeout = step.getTimeout();
+        this.expiring = timeout != null;
+        if (expiring) {
+            this.deadline = now + timeout.toNanos();
+        }
+    }
+
+    /**
+     * Records the answer to the current step.
+     *
+     * @param answer The answer.
+     */
+    void answer(Object answer) {
+        answers[step.getIndex()] = answer;
+    }
+
+    /**
+     * Records a mismatching answer to the current step.
+     *
+     * @return {@code true} if the step may be retried, {@code false} if it ran out of retries.
+     */
+    boolean mismatch() {
+        mismatches++;
+        return step.getRetries() < 0 || mismatches <= step.getRetries();
+    }
+
+    boolean isExpiring() {
+        return expiring;
+    }
+
+    long getDeadline() {
+        return deadline;
+    }
+
+    boolean isExpired(long now) {
+        return expiring && now - deadline > 0;
+    }
+
+    void timeout(ExpirationWheel<?>.Timeout timeout) {
+        this.timeout = timeout;
+    }
+
+    boolean isScheduled() {
+        return timeout != null;
+    }
+
+    void cancelTimeout() {
+        if (timeout != null) {
+            timeout.cancel();
+            timeout = null;
+        }
+    }
+
+    /**
+     * Ends the flow, cancelling the timeout of the current step.
+     */
+    void end() {
+        ended = true;
+        cancelTimeout();
+    }
+
+    boolean isEnded() {
+        return ended;
+    }
+
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    @Override
+    public InputFlow getFlow() {
+        return flow;
+    }
+
+    @Override
+    public FlowStep<?> getStep() {
+        return step;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T get(@NotNull String step) {
+        int index = flow.indexOf(step);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown step: " + step);
+        }
+        return (T) answers[index];
+    }
+
+}
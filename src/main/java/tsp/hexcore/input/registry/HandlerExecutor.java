@@ -0,0 +1,110 @@
+package tsp.hexcore.input.registry;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Decides where the handlers of an {@link tsp.hexcore.input.Input} run, i.e. the input, mismatch and expired handlers.
+ * By default they run inline, on the thread processing the message, which for chat is the async chat thread.
+ * <p>
+ * An {@link tsp.hexcore.input.Input#then(java.util.function.BiConsumer) event handler} always runs inline,
+ * whatever the executor, as the chat event is only live while it is dispatched. A handler running later
+ * could no longer cancel or change it.
+ * </p>
+ *
+ * @author TheSilentPro (Silent)
+ * @see InputRegistryBuilder#executor(HandlerExecutor)
+ */
+public interface HandlerExecutor {
+
+    /**
+     * Runs the handlers inline, on the thread that processes the message or expires the input.
+     *
+     * @return The inline executor.
+     */
+    static HandlerExecutor inline() {
+        return InlineExecutor.INSTANCE;
+    }
+
+    /**
+     * Queues the handlers and runs them on the thread calling {@link InputRegistry#tick()},
+     * which for {@link tsp.hexcore.input.InputListener} is the server thread.
+     * Each tick runs queued handlers until the budget is used up and leaves the rest for the next tick,
+     * so a burst of chat can not stall the server. At least one handler runs per tick.
+     * Event handlers still run inline, see above.
+     *
+     * @param budget The time per tick that may be spent running handlers.
+     * @return A new tick executor.
+     */
+    static HandlerExecutor tick(@NotNull Duration budget) {
+        return new TickExecutor(budget.toNanos());
+    }
+
+    /**
+     * Runs the handlers on an {@link Executor}, in no particular order.
+     * Event handlers still run inline, see above.
+     *
+     * @param executor The executor.
+     * @return A new executor backed by the given one.
+     */
+    static HandlerExecutor of(@NotNull Executor executor) {
+        return (id, handler) -> executor.execute(handler);
+    }
+
+    /**
+     * Runs the handlers on an {@link Executor}, keeping the handlers of each player in order.
+     * Handlers of one player run one at a time, handlers of different players run concurrently.
+     * Event handlers still run inline, see above.
+     *
+     * @param executor The executor.
+     * @return A new executor backed by the given one.
+     */
+    static HandlerExecutor serialized(@NotNull Executor executor) {
+        return new SerializedExecutor(executor);
+    }
+
+    /**
+     * Runs each handler on a virtual thread of its own, in no particular order.
+     * Suited for handlers that block, e.g. on database lookups, as processing chat no longer waits for them.
+     * Event handlers still run inline, see above.
+     *
+     * @return A new virtual thread executor.
+     * @see #serializedVirtualThreads()
+     */
+    static HandlerExecutor virtualThreads() {
+        ThreadFactory factory = Thread.ofVirtual().name("hexcore-input-handler-", 0).factory();
+        return of(command -> factory.newThread(command).start());
+    }
+
+    /**
+     * Runs the handlers on virtual threads, keeping the handlers of each player in order.
+     * Rather than one per handler, a virtual thread is started for each player with queued handlers,
+     * and runs them until there are none left.
+     * Event handlers still run inline, see above.
+     *
+     * @return A new virtual thread executor.
+     * @see #serialized(Executor)
+     */
+    static HandlerExecutor serializedVirtualThreads() {
+        ThreadFactory factory = Thread.ofVirtual().name("hexcore-input-handler-", 0).factory();
+        return serialized(command -> factory.newThread(command).start());
+    }
+
+    /**
+     * Runs or schedules a handler.
+     *
+     * @param id The unique identifier of the input the handler belongs to.
+     * @param handler The handler.
+     */
+    void execute(@NotNull UUID id, @NotNull Runnable handler);
+
+    /**
+     * Called from {@link InputRegistry#tick()}, once per tick.
+     */
+    default void tick() {}
+
+}
@@ -0,0 +1,23 @@
+package tsp.hexcore.input.registry;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * A {@link HandlerExecutor} running handlers on the calling thread.
+ * The registry recognizes it and invokes handlers directly, without wrapping them.
+ *
+ * @author TheSilentPro (Silent)
+ * @see HandlerExecutor#inline()
+ */
+enum InlineExecutor implements HandlerExecutor {
+
+    INSTANCE;
+
+    @Override
+    public void execute(@NotNull UUID id, @NotNull Runnable handler) {
+        handler.run();
+    }
+
+}
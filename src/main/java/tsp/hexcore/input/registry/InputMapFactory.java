@@ -0,0 +1,38 @@
+package tsp.hexcore.input.registry;
+
+import tsp.hexcore.util.UuidMap;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates the map in which an {@link InputRegistry} keeps what each player is awaiting.
+ * The registry chooses the type of the values, so the factory must be generic,
+ * which constructor references such as {@code ConcurrentHashMap::new} are.
+ *
+ * @author TheSilentPro (Silent)
+ * @see InputRegistryBuilder#map(InputMapFactory)
+ */
+@FunctionalInterface
+public interface InputMapFactory {
+
+    /**
+     * The default factory, creating a {@link ConcurrentHashMap}.
+     */
+    InputMapFactory DEFAULT = ConcurrentHashMap::new;
+
+    /**
+     * A factory creating a {@link UuidMap}, an open-addressing table storing the keys as primitive longs.
+     */
+    InputMapFactory UUID_MAP = UuidMap::new;
+
+    /**
+     * Creates an empty map.
+     *
+     * @param <V> The type of the values.
+     * @return The map.
+     */
+    <V> ConcurrentMap<UUID, V> create();
+
+}
@@ -4,6 +4,8 @@ import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import tsp.hexcore.input.Input;
+import tsp.hexcore.input.flow.InputFlow;
+import tsp.hexcore.input.metrics.InputMetrics;
 import tsp.hexcore.input.parser.InputParser;
 import tsp.hexcore.input.parser.InputParserRegistry;
 
@@ -25,11 +27,26 @@ public interface InputRegistry {
      * Creates a new input registry with the specified parser registry and map.
      *
      * @param parserRegistry The registry for input parsers.
-     * @param map The map implementation used for storing input entries.
+     * @param map The factory creating the map implementation used for storing input entries.
      * @return A new instance of {@link InputRegistry}.
      */
+    static InputRegistry newRegistry(InputParserRegistry parserRegistry, InputMapFactory map) {
+        return builder(parserRegistry).map(map).build();
+    }
+
+    /**
+     * Creates a new input registry with the specified parser registry.
+     * The registry no longer stores its inputs in a map of queues, so the map is not used,
+     * and the default map implementation is used instead.
+     *
+     * @param parserRegistry The registry for input parsers.
+     * @param map Not used.
+     * @return A new instance of {@link InputRegistry}.
+     * @deprecated Use {@link #newRegistry(InputParserRegistry, InputMapFactory)} to choose the map implementation.
+     */
+    @Deprecated
     static InputRegistry newRegistry(InputParserRegistry parserRegistry, Map<UUID, Deque<Input<?>>> map) {
-        return new InputRegistryImpl(parserRegistry, map);
+        return newRegistry(parserRegistry, InputMapFactory.DEFAULT);
     }
 
     /**
@@ -40,7 +57,17 @@ public interface InputRegistry {
      * @return A new instance of {@link InputRegistry}.
      */
     static InputRegistry newRegistry(InputParserRegistry parserRegistry) {
-        return new InputRegistryImpl(parserRegistry, new ConcurrentHashMap<>());
+        return builder(parserRegistry).build();
+    }
+
+    /**
+     * Creates a builder for an input registry with the specified parser registry.
+     *
+     * @param parserRegistry The registry for input parsers.
+     * @return A new {@link InputRegistryBuilder}.
+     */
+    static InputRegistryBuilder builder(InputParserRegistry parserRegistry) {
+        return new InputRegistryBuilder(parserRegistry);
     }
 
     /**
@@ -51,6 +78,18 @@ public interface InputRegistry {
      */
     <T> void register(Input<T> input);
 
+    /**
+     * Starts an {@link InputFlow}, replacing a flow that is already running for the id.
+     * While the flow runs, it receives the messages of the id before any awaited {@link Input}.
+     *
+     * @param id The unique identifier to run the flow for.
+     * @param flow The flow.
+     * @throws UnsupportedOperationException If this registry does not support flows, the default.
+     */
+    default void start(@NotNull UUID id, @NotNull InputFlow flow) {
+        throw new UnsupportedOperationException("Flows are not supported by this registry.");
+    }
+
     /**
      * Processes an input string associated with a specific input handler.
      * This method is called when an input event (e.g., a chat event) triggers the processing.
@@ -72,6 +111,44 @@ public interface InputRegistry {
         process(id, input, null);
     }
 
+    /**
+     * Cancels everything awaiting a response from the id: its inputs, whose futures complete with an
+     * {@link tsp.hexcore.input.InputException} for {@link tsp.hexcore.input.InputOutcome#CANCELLED}, and its running flow.
+     * Only the {@link Input#cancelled(java.util.function.Consumer) cancellation handlers} of the inputs are invoked.
+     * {@link tsp.hexcore.input.InputListener} calls it when a player leaves.
+     *
+     * @param id The unique identifier.
+     * @return The number of inputs and flows cancelled.
+     */
+    default int cancel(@NotNull UUID id) {
+        return 0;
+    }
+
+    /**
+     * Notifies the registry that an input was modified after it had been registered,
+     * for example when its duration is set on an input returned by {@link Input#awaitString()}.
+     *
+     * @param input The registered input.
+     */
+    default void refresh(@NotNull Input<?> input) {}
+
+    /**
+     * Performs time based work, such as expiring inputs whose deadline has passed
+     * and running handlers queued by a {@link HandlerExecutor#tick(java.time.Duration) tick executor}.
+     * Expected to be called periodically, {@link tsp.hexcore.input.InputListener} calls it once per server tick.
+     */
+    default void tick() {}
+
+    /**
+     * Gets the metrics of the registry.
+     *
+     * @return The metrics, {@link InputMetrics#disabled() disabled} unless set on the builder.
+     * @see InputRegistryBuilder#metrics(InputMetrics)
+     */
+    default InputMetrics getMetrics() {
+        return InputMetrics.disabled();
+    }
+
     /**
      * Handler for cases where an invalid {@link InputParser} is passed to an {@link Input#await(UUID, Class)}.
      * This method is invoked when the parser registry cannot find a parser for the specified input type.
@@ -0,0 +1,200 @@
+package tsp.hexcore.input.registry;
+
+import org.jetbrains.annotations.NotNull;
+import tsp.hexcore.input.Input;
+import tsp.hexcore.input.metrics.InputMetrics;
+import tsp.hexcore.input.parser.InputParserRegistry;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Builder for configuring an {@link InputRegistry}.
+ *
+ * @author TheSilentPro (Silent)
+ * @see InputRegistry#builder(InputParserRegistry)
+ */
+public final class InputRegistryBuilder {
+
+    /**
+     * The default expiration resolution, one server tick.
+     */
+    public static final Duration DEFAULT_EXPIRATION_RESOLUTION = Duration.ofMillis(50);
+
+    final InputParserRegistry parserRegistry;
+    InputMapFactory map = InputMapFactory.DEFAULT;
+    Duration expirationResolution;
+    HandlerExecutor executor;
+    InputMetrics metrics = InputMetrics.disabled();
+    int perPlayerLimit = Integer.MAX_VALUE;
+    OverflowPolicy overflowPolicy = OverflowPolicy.REJECT_NEWEST;
+    int globalLimit = Integer.MAX_VALUE;
+    int throttleBurst;
+    Duration throttleInterval;
+    BiConsumer<UUID, String> throttledHandler;
+    boolean multiplex;
+
+    InputRegistryBuilder(@NotNull InputParserRegistry parserRegistry) {
+        this.parserRegistry = parserRegistry;
+    }
+
+    /**
+     * Sets the map implementation used for storing input entries, keyed by player.
+     * Defaults to a {@link ConcurrentHashMap}.
+     *
+     * @param map The factory creating the map.
+     * @return This builder.
+     */
+    public InputRegistryBuilder map(@NotNull InputMapFactory map) {
+        this.map = map;
+        return this;
+    }
+
+    /**
+     * Enables proactive expiration.
+     * Inputs with a {@link Input#until(Duration) duration} are expired on their deadline by {@link InputRegistry#tick()},
+     * instead of only when the player sends another message.
+     *
+     * @param resolution The granularity of deadlines. Inputs expire at most this late.
+     * @return This builder.
+     */
+    public InputRegistryBuilder expiration(@NotNull Duration resolution) {
+        if (resolution.isNegative() || resolution.isZero()) {
+            throw new IllegalArgumentException("Resolution must be positive: " + resolution);
+        }
+
+        this.expirationResolution = resolution;
+        return this;
+    }
+
+    /**
+     * Enables proactive expiration with the {@link #DEFAULT_EXPIRATION_RESOLUTION default resolution}.
+     *
+     * @return This builder.
+     * @see #expiration(Duration)
+     */
+    public InputRegistryBuilder expiration() {
+        return expiration(DEFAULT_EXPIRATION_RESOLUTION);
+    }
+
+    /**
+     * Sets the executor running the handlers of inputs.
+     * Defaults to {@link HandlerExecutor#inline() inline}.
+     *
+     * @param executor The executor.
+     * @return This builder.
+     */
+    public InputRegistryBuilder executor(@NotNull HandlerExecutor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Sets the metrics the registry reports to.
+     * Defaults to {@link InputMetrics#disabled() disabled}, which costs nothing.
+     *
+     * @param metrics The metrics.
+     * @return This builder.
+     * @see InputMetrics#recording()
+     */
+    public InputRegistryBuilder metrics(@NotNull InputMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Limits the number of inputs a player can await at once. Unlimited by default.
+     *
+     * @param limit The maximum number of pending inputs per player.
+     * @param policy What happens to an input registered beyond the limit.
+     * @return This builder.
+     */
+    public InputRegistryBuilder perPlayerLimit(int limit, @NotNull OverflowPolicy policy) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+
+        this.perPlayerLimit = limit;
+        this.overflowPolicy = policy;
+        return this;
+    }
+
+    /**
+     * Limits the number of inputs all players can await at once. Unlimited by default.
+     * Inputs registered beyond the limit are rejected, as the oldest input of another player is not known
+     * without ordering all of them. The count is shared by all threads registering inputs.
+     *
+     * @param limit The maximum number of pending inputs.
+     * @return This builder.
+     */
+    public InputRegistryBuilder globalLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+
+        this.globalLimit = limit;
+        return this;
+    }
+
+    /**
+     * Limits how fast a player's messages are processed while they await an input, before anything is parsed.
+     * A player may send a burst of messages at once, after which one message is processed per interval.
+     * Messages over the limit are dropped, the inputs keep waiting. Unlimited by default.
+     * The limit of a player holds across inputs, until they leave or their inputs are {@link InputRegistry#cancel(UUID) cancelled}.
+     *
+     * @param burst The number of messages processed at once.
+     * @param interval The time it takes to allow one more message.
+     * @return This builder.
+     * @see #throttled(BiConsumer)
+     */
+    public InputRegistryBuilder throttle(int burst, @NotNull Duration interval) {
+        if (burst < 1) {
+            throw new IllegalArgumentException("Burst must be positive: " + burst);
+        }
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Interval must be positive: " + interval);
+        }
+
+        this.throttleBurst = burst;
+        this.throttleInterval = interval;
+        return this;
+    }
+
+    /**
+     * Sets the handler invoked when a player's messages are dropped by the {@link #throttle(int, Duration) flood limit},
+     * e.g. to ask them to slow down. It receives the id and the message, and is invoked once per run of dropped messages.
+     *
+     * @param handler The handler.
+     * @return This builder.
+     */
+    public InputRegistryBuilder throttled(@NotNull BiConsumer<UUID, String> handler) {
+        this.throttledHandler = handler;
+        return this;
+    }
+
+    /**
+     * Lets a message answer any of a player's pending inputs that accepts it, instead of only the oldest one.
+     * The message goes to the oldest input whose parser accepts it, e.g. to one awaiting a {@link Duration}
+     * while an older one awaits an {@link Integer}. A message no input accepts is a mismatch for the oldest input.
+     * Each type is parsed at most once per message, however many inputs await it.
+     * {@link Input#keyword(String) Routed} inputs still take the messages routed to them first.
+     *
+     * @return This builder.
+     */
+    public InputRegistryBuilder multiplex() {
+        this.multiplex = true;
+        return this;
+    }
+
+    /**
+     * Builds the registry.
+     *
+     * @return A new instance of {@link InputRegistry}.
+     */
+    public InputRegistry build() {
+        return new InputRegistryImpl(this);
+    }
+
+}
@@ -4,12 +4,20 @@ import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import tsp.hexcore.input.Input;
+import tsp.hexcore.input.InputException;
+import tsp.hexcore.input.InputOutcome;
+import tsp.hexcore.input.flow.FlowContext;
+import tsp.hexcore.input.flow.FlowStep;
+import tsp.hexcore.input.flow.InputFlow;
+import tsp.hexcore.input.metrics.InputMetrics;
+import tsp.hexcore.input.parser.InputParser;
 import tsp.hexcore.input.parser.InputParserRegistry;
 
-import java.util.Deque;
-import java.util.Map;
+import java.util.Arrays;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -19,66 +27,705 @@ import java.util.function.Consumer;
 class InputRegistryImpl implements InputRegistry {
 
     private final InputParserRegistry parserRegistry;
-    private final Map<UUID, Deque<Input<?>>> inputs;
+    private final ConcurrentMap<UUID, InputSlot> inputs;
+    // Holds pending inputs and flow cursors
+    private final ExpirationWheel<Object> expirations;
+    // Null when handlers run inline, which avoids wrapping them
+    private final HandlerExecutor executor;
+    // Null when disabled, so nothing is measured
+    private final InputMetrics metrics;
+    private final int perPlayerLimit;
+    private final boolean dropOldest;
+    private final int globalLimit;
+    // Null when there is no global limit, so registering does not contend on it
+    private final AtomicInteger pending;
+    // Zero when messages are not throttled
+    private final long throttleInterval;
+    private final long throttleTolerance;
+    private final BiConsumer<UUID, String> throttledHandler;
+    // Outlives the slots of a player, null when messages are not throttled
+    private final ConcurrentMap<UUID, Throttle> throttles;
+    private final boolean multiplex;
+    private final Consumer<Object> expireAction = this::expire;
 
-    InputRegistryImpl(InputParserRegistry parserRegistry, Map<UUID, Deque<Input<?>>> map) {
-        this.parserRegistry = parserRegistry;
-        this.inputs = map;
+    InputRegistryImpl(InputRegistryBuilder builder) {
+        this.parserRegistry = builder.parserRegistry;
+        this.inputs = builder.map.create();
+        this.expirations = builder.expirationResolution != null ? new ExpirationWheel<>(builder.expirationResolution.toNanos(), System.nanoTime()) : null;
+        this.executor = builder.executor != null && builder.executor != InlineExecutor.INSTANCE ? builder.executor : null;
+        this.metrics = builder.metrics != InputMetrics.disabled() ? builder.metrics : null;
+        this.perPlayerLimit = builder.perPlayerLimit;
+        this.dropOldest = builder.overflowPolicy == OverflowPolicy.DROP_OLDEST;
+        this.globalLimit = builder.globalLimit;
+        this.pending = builder.globalLimit != Integer.MAX_VALUE ? new AtomicInteger() : null;
+        this.throttleInterval = builder.throttleInterval != null ? builder.throttleInterval.toNanos() : 0;
+        this.throttleTolerance = builder.throttleInterval != null ? builder.throttleInterval.toNanos() * (builder.throttleBurst - 1) : 0;
+        this.throttledHandler = builder.throttledHandler;
+        this.throttles = builder.throttleInterval != null ? builder.map.create() : null;
+        this.multiplex = builder.multiplex;
     }
 
     @Override
     public <T> void register(Input<T> input) {
-        inputs.computeIfAbsent(input.getId(), k -> new ConcurrentLinkedDeque<>()).add(input);
+        PendingInput<T> pending = new PendingInput<>(input);
+        if (!reserve()) {
+            discard(pending, InputOutcome.OVERFLOW);
+            return;
+        }
+
+        if (metrics != null) {
+            pending.registered(System.nanoTime());
+            metrics.registered(input.getRequiredInputType());
+        }
+
+        UUID id = input.getId();
+        InputSlot slot = inputs.computeIfAbsent(id, k -> new InputSlot());
+        PendingInput<?> dropped;
+        while ((dropped = slot.add(pending, perPlayerLimit, dropOldest)) == pending && slot.isRetired()) {
+            // Emptied by a concurrent consumer and about to be removed, help remove it and retry with a new slot
+            inputs.remove(id, slot);
+            slot = inputs.computeIfAbsent(id, k -> new InputSlot());
+        }
+
+        if (dropped != null) {
+            dropped.cancelTimeout();
+            removed(dropped);
+            discard(dropped, InputOutcome.OVERFLOW);
+            if (dropped == pending) {
+                return;
+            }
+        }
+        // Scheduled only once queued, so an input that is already due is found when it fires
+        schedule(pending);
+    }
+
+    @Override
+    public void refresh(@NotNull Input<?> input) {
+        InputSlot slot = inputs.get(input.getId());
+        PendingInput<?> pending = slot != null ? slot.find(input) : null;
+        if (pending != null) {
+            pending.cancelTimeout();
+            pending.compile();
+            schedule(pending);
+        }
+    }
+
+    @Override
+    public void start(@NotNull UUID id, @NotNull InputFlow flow) {
+        FlowCursor cursor = new FlowCursor(id, flow);
+        FlowStep<?> entered;
+        synchronized (cursor) {
+            cursor.enter(0, System.nanoTime());
+            entered = cursor.getStep();
+        }
+
+        InputSlot slot = inputs.computeIfAbsent(id, k -> new InputSlot());
+        FlowCursor previous;
+        while ((previous = slot.setFlow(cursor)) == cursor) {
+            // Retired, see register
+            inputs.remove(id, slot);
+            slot = inputs.computeIfAbsent(id, k -> new InputSlot());
+        }
+
+        if (previous != null) {
+            synchronized (previous) {
+                previous.end();
+            }
+        }
+
+        // Scheduled only once published, so a cursor expiring right away is found and removed
+        synchronized (cursor) {
+            // Unless it already ended, or moved on and scheduled its next step
+            if (!cursor.isEnded() && !cursor.isScheduled()) {
+                schedule(cursor);
+            }
+        }
+        prompt(cursor, entered);
     }
 
     @Override
     public void process(@NotNull UUID id, @NotNull String input, @Nullable AsyncPlayerChatEvent event) {
-        Deque<Input<?>> registeredInputs = inputs.get(id);
-        if (registeredInputs == null) {
+        InputSlot slot = inputs.get(id);
+        if (slot == null) {
             return;
         }
 
-        if (!registeredInputs.isEmpty()) {
-            // Poll the first input in the queue
-            Input<?> registeredInput = registeredInputs.pollFirst();
-            if (registeredInput != null) {
-                //noinspection CodeBlock2Expr
-                parserRegistry.find(registeredInput.getRequiredInputType())
-                        .ifPresentOrElse(parser -> {
-                            parser.parse(input).ifPresentOrElse(parsedInput -> {
-                                if (registeredInput.hasExpired() && !registeredInput.shouldIgnoreExpired()) {
-                                    if (registeredInput.getExpiredHandler() != null) {
-                                        registeredInput.getExpiredHandler().accept(input);
-                                    }
-                                    return;
-                                }
-
-                                if (registeredInput.getInputHandler() != null) {
-                                    //noinspection unchecked
-                                    Consumer<Object> handler = (Consumer<Object>) registeredInput.getInputHandler();
-                                    handler.accept(parsedInput);
-                                }
-
-                                if (event != null) {
-                                    if (registeredInput.getBiInputHandler() != null) {
-                                        //noinspection unchecked
-                                        BiConsumer<Object, AsyncPlayerChatEvent> handler = (BiConsumer<Object, AsyncPlayerChatEvent>) registeredInput.getBiInputHandler();
-                                        handler.accept(parsedInput, event);
-                                    }
-                                }
-                            }, () -> {
-                                if (registeredInput.getMismatchHandler() != null) {
-                                    registeredInput.getMismatchHandler().accept(input);
-                                }
-                            });
-                        }, () -> onInvalidParser(registeredInput.getRequiredInputType()));
+        // Flood protection, before any parsing
+        if (throttleInterval != 0) {
+            long now = System.nanoTime();
+            Throttle throttle = throttles.get(id);
+            if (throttle == null) {
+                throttle = throttles.computeIfAbsent(id, k -> new Throttle(now));
+            }
+
+            int admission = throttle.admit(now, throttleInterval, throttleTolerance);
+            if (admission != Throttle.ADMITTED) {
+                if (admission == Throttle.THROTTLED && throttledHandler != null) {
+                    handle(id, () -> throttledHandler.accept(id, input));
+                }
+                return;
             }
         }
 
+        // A running flow receives messages before awaited inputs
+        FlowCursor cursor = slot.getFlow();
+        if (cursor != null) {
+            process(cursor, input, event);
+            return;
+        }
+
+        if (multiplex) {
+            multiplex(id, slot, input, event);
+            return;
+        }
+
+        // Poll the input the message is routed to, or the first input in the queue
+        PendingInput<?> registeredInput = slot.poll(input);
         // Clean up the registry if no inputs remain for the given ID
-        if (registeredInputs.isEmpty()) {
-            inputs.remove(id);
+        release(id, slot);
+        if (registeredInput != null) {
+            consume(registeredInput, input, event, null);
+        }
+    }
+
+    /**
+     * Gives a message to the oldest queued input that accepts it, after the input it is routed to.
+     * Each parser runs at most once for the message, its result is shared by all inputs using it.
+     * A message no input accepts is a mismatch for the oldest input, as without multiplexing.
+     * Inputs that have expired are expired on the way, they do not take the message.
+     *
+     * @param id The ID of the player.
+     * @param slot The slot of the player.
+     * @param input The message.
+     * @param event The event source, may be {@code null}.
+     */
+    private void multiplex(UUID id, InputSlot slot, String input, AsyncPlayerChatEvent event) {
+        PendingInput<?> routed = slot.pollRouted(input);
+        if (routed != null) {
+            release(id, slot);
+            consume(routed, input, event, null);
+            return;
+        }
+
+        // Parsed outside the slot, an input taken by a concurrent message in the meantime is skipped
+        PendingInput<?>[] candidates = slot.queued();
+        if (candidates.length == 0) {
+            return;
+        }
+
+        Parses parses = new Parses();
+        long now = System.nanoTime();
+        for (PendingInput<?> candidate : candidates) {
+            if (candidate.isExpired(now)) {
+                // Takes no answers, so a live input further back gets the message. Expired on the way
+                if (slot.remove(candidate)) {
+                    candidate.cancelTimeout();
+                    removed(candidate);
+                    reject(candidate, candidate.getExpiredHandler(), input, InputOutcome.EXPIRED);
+                }
+                continue;
+            }
+
+            if (accepts(candidate, input, event, parses) && slot.remove(candidate)) {
+                release(id, slot);
+                consume(candidate, input, event, parses);
+                return;
+            }
+        }
+
+        for (PendingInput<?> candidate : candidates) {
+            if (slot.remove(candidate)) {
+                release(id, slot);
+                consume(candidate, input, event, parses);
+                return;
+            }
+        }
+        // Every input had expired
+        release(id, slot);
+    }
+
+    private <T> boolean accepts(PendingInput<T> candidate, String input, AsyncPlayerChatEvent event, Parses parses) {
+        InputParser<T> parser = parser(candidate);
+        return parser != null && parse(parser, candidate.getRequiredInputType(), input, event, parses).isPresent();
+    }
+
+    /**
+     * Handles the message for an input taken out of its slot.
+     *
+     * @param registeredInput The input.
+     * @param input The message.
+     * @param event The event source, may be {@code null}.
+     * @param parses The results of parsers that already ran for the message, may be {@code null}.
+     */
+    private void consume(PendingInput<?> registeredInput, String input, AsyncPlayerChatEvent event, Parses parses) {
+        registeredInput.cancelTimeout();
+        removed(registeredInput);
+        String route = registeredInput.getRoute();
+        // A prefixed input receives what follows its prefix
+        dispatch(registeredInput, route != null && !registeredInput.isKeyword()
+                ? input.substring(route.length()).stripLeading() : input, event, parses);
+    }
+
+    @Override
+    public int cancel(@NotNull UUID id) {
+        if (throttles != null) {
+            // The player leaves, or starts over
+            throttles.remove(id);
+        }
+
+        InputSlot slot = inputs.get(id);
+        if (slot == null) {
+            return 0;
+        }
+
+        // Retired first, inputs registered from now on go to a new slot and are not cancelled
+        int cancelled = 0;
+        FlowCursor cursor = slot.close();
+        inputs.remove(id, slot);
+        if (cursor != null) {
+            synchronized (cursor) {
+                if (!cursor.isEnded()) {
+                    cursor.end();
+                    cancelled++;
+                }
+            }
+        }
+
+        return cancelled + slot.drain(registeredInput -> {
+            registeredInput.cancelTimeout();
+            removed(registeredInput);
+            discard(registeredInput, InputOutcome.CANCELLED);
+        });
+    }
+
+    /**
+     * Parses the message for the input and invokes the matching handler.
+     * Kept free of lambdas and other allocations when handlers run inline,
+     * the parser's result is the only object created per message.
+     *
+     * @param registeredInput The input that receives the message.
+     * @param input The message.
+     * @param event The event source, may be {@code null}.
+     * @param parses The results of parsers that already ran for the message, may be {@code null}.
+     * @param <T> The type of input.
+     */
+    private <T> void dispatch(PendingInput<T> registeredInput, String input, AsyncPlayerChatEvent event, Parses parses) {
+        InputParser<T> parser = parser(registeredInput);
+        if (parser == null) {
+            if (metrics != null) {
+                metrics.missingParser(registeredInput.getRequiredInputType());
+            }
+            try {
+                onInvalidParser(registeredInput.getRequiredInputType());
+            } catch (RuntimeException e) {
+                fail(registeredInput, e);
+                throw e;
+            }
+            fail(registeredInput, new InputException(InputOutcome.CANCELLED, input));
+            return;
+        }
+
+        Optional<T> parsedInput = parse(parser, registeredInput.getRequiredInputType(), input, event, parses);
+        long now = System.nanoTime();
+        if (parsedInput.isEmpty()) {
+            reject(registeredInput, registeredInput.getMismatchHandler(), input, InputOutcome.MISMATCH);
+            return;
+        }
+
+        if (registeredInput.isExpired(now)) {
+            reject(registeredInput, registeredInput.getExpiredHandler(), input, InputOutcome.EXPIRED);
+            return;
+        }
+
+        if (metrics != null) {
+            metrics.answered(registeredInput.getRequiredInputType(), now - registeredInput.getRegistered());
+        }
+
+        T value = parsedInput.get();
+        if (executor == null) {
+            accept(registeredInput, value, event);
+        } else {
+            if (event != null && registeredInput.getBiInputHandler() != null) {
+                // The event is only live while it is dispatched, cancelling or changing it can not wait for the executor
+                acceptEvent(registeredInput, value, event);
+            }
+            executor.execute(registeredInput.getId(), () -> accept(registeredInput, value, null));
+        }
+    }
+
+    private <T> void acceptEvent(Input<T> registeredInput, T value, AsyncPlayerChatEvent event) {
+        try {
+            registeredInput.getBiInputHandler().accept(value, event);
+        } catch (RuntimeException e) {
+            fail(registeredInput, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Finds the parser for an input. A parser set on the input wins over the registered ones.
+     * Otherwise looked up per message, a memoized read, so parsers swapped while the input waits take effect.
+     *
+     * @param registeredInput The input.
+     * @param <T> The type of input.
+     * @return The parser, or {@code null} if there is none for the type.
+     */
+    private <T> InputParser<T> parser(PendingInput<T> registeredInput) {
+        InputParser<T> parser = registeredInput.getParser();
+        return parser != null ? parser : parserRegistry.findChain(registeredInput.getRequiredInputType()).orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Optional<T> parse(InputParser<T> parser, Class<T> type, String input, AsyncPlayerChatEvent event, Parses parses) {
+        if (parses != null) {
+            Optional<?> parsed = parses.get(parser);
+            if (parsed != null) {
+                // Stored by the same parser
+                return (Optional<T>) parsed;
+            }
+        }
+
+        long start = metrics != null ? System.nanoTime() : 0L;
+        Optional<T> parsed = parser.parse(input, event);
+        if (metrics != null) {
+            metrics.parsed(type, System.nanoTime() - start);
+        }
+
+        if (parses != null) {
+            parses.put(parser, parsed);
+        }
+        return parsed;
+    }
+
+    private <T> void accept(Input<T> registeredInput, T value, AsyncPlayerChatEvent event) {
+        long start = metrics != null ? System.nanoTime() : 0L;
+        try {
+            if (registeredInput.getInputHandler() != null) {
+                registeredInput.getInputHandler().accept(value);
+            }
+
+            if (event != null && registeredInput.getBiInputHandler() != null) {
+                registeredInput.getBiInputHandler().accept(value, event);
+            }
+        } catch (RuntimeException e) {
+            fail(registeredInput, e);
+            throw e;
+        } finally {
+            if (metrics != null) {
+                metrics.handled(registeredInput.getRequiredInputType(), System.nanoTime() - start);
+            }
+        }
+
+        registeredInput.settle(value, null);
+    }
+
+    /**
+     * Ends an input without a value, invoking the handler and completing the future of the input.
+     *
+     * @param registeredInput The input.
+     * @param handler The handler for the outcome, may be {@code null}.
+     * @param input The message, may be {@code null}.
+     * @param outcome The outcome.
+     */
+    private void reject(Input<?> registeredInput, Consumer<String> handler, String input, InputOutcome outcome) {
+        if (metrics != null) {
+            metrics.rejected(registeredInput.getRequiredInputType(), outcome);
+        }
+
+        if (handler == null && registeredInput.getFuture() == null) {
+            // Nothing to run, but a future requested later still completes
+            registeredInput.settle(null, new InputException(outcome, input));
+            return;
+        }
+
+        if (executor == null) {
+            rejected(registeredInput, handler, input, outcome);
+        } else {
+            executor.execute(registeredInput.getId(), () -> rejected(registeredInput, handler, input, outcome));
+        }
+    }
+
+    /**
+     * Ends an input the registry takes out without an answer, invoking its {@link Input#getCancelledHandler() handler}.
+     *
+     * @param registeredInput The input.
+     * @param outcome The outcome.
+     */
+    private void discard(Input<?> registeredInput, InputOutcome outcome) {
+        Consumer<InputOutcome> handler = registeredInput.getCancelledHandler();
+        reject(registeredInput, handler != null ? input -> handler.accept(outcome) : null, null, outcome);
+    }
+
+    private static void rejected(Input<?> registeredInput, Consumer<String> handler, String input, InputOutcome outcome) {
+        try {
+            if (handler != null) {
+                handler.accept(input);
+            }
+        } finally {
+            fail(registeredInput, new InputException(outcome, input));
+        }
+    }
+
+    private static void fail(Input<?> registeredInput, Throwable cause) {
+        registeredInput.settle(null, cause);
+    }
+
+    private void handle(UUID id, Runnable handler) {
+        if (executor == null) {
+            handler.run();
+        } else {
+            executor.execute(id, handler);
+        }
+    }
+
+    /**
+     * Moves a flow on with an answer. The state changes while holding the cursor,
+     * the handlers are called after releasing it.
+     *
+     * @param cursor The cursor of the flow.
+     * @param input The answer.
+     * @param event The event source, may be {@code null}.
+     */
+    private void process(FlowCursor cursor, String input, AsyncPlayerChatEvent event) {
+        InputFlow flow = cursor.getFlow();
+        FlowStep<?> step;
+        FlowStep<?> entered = null;
+        Consumer<FlowContext> endHandler = null;
+        boolean retry = false;
+        synchronized (cursor) {
+            if (cursor.isEnded()) {
+                // Expired or replaced in the meantime
+                return;
+            }
+
+            step = cursor.getStep();
+            if (cursor.isExpired(System.nanoTime())) {
+                end(cursor);
+                endHandler = flow.getExpiredHandler();
+            } else {
+                Optional<?> parsedInput = step.getParser().parse(input, event);
+                if (parsedInput.isEmpty()) {
+                    retry = cursor.mismatch();
+                    if (!retry) {
+                        end(cursor);
+                        endHandler = flow.getFailedHandler();
+                    }
+                } else {
+                    cursor.answer(parsedInput.get());
+                    int next;
+                    try {
+                        next = flow.next(cursor);
+                    } catch (RuntimeException e) {
+                        end(cursor);
+                        throw e;
+                    }
+
+                    if (next == InputFlow.END) {
+                        end(cursor);
+                        endHandler = flow.getCompleteHandler();
+                    } else {
+                        cursor.cancelTimeout();
+                        cursor.enter(next, System.nanoTime());
+                        schedule(cursor);
+                        entered = cursor.getStep();
+                    }
+                }
+            }
+        }
+
+        if (retry) {
+            BiConsumer<FlowContext, String> mismatchHandler = step.getMismatchHandler();
+            if (mismatchHandler != null) {
+                handle(cursor.getId(), () -> mismatchHandler.accept(cursor, input));
+            }
+        } else if (endHandler != null) {
+            Consumer<FlowContext> handler = endHandler;
+            handle(cursor.getId(), () -> handler.accept(cursor));
+        } else if (entered != null) {
+            prompt(cursor, entered);
+        }
+    }
+
+    private void prompt(FlowCursor cursor, FlowStep<?> step) {
+        Consumer<FlowContext> prompt = step.getPrompt();
+        if (prompt != null) {
+            handle(cursor.getId(), () -> prompt.accept(cursor));
+        }
+    }
+
+    /**
+     * Ends a flow and removes it, must hold the cursor.
+     *
+     * @param cursor The cursor of the flow.
+     */
+    private void end(FlowCursor cursor) {
+        cursor.end();
+        InputSlot slot = inputs.get(cursor.getId());
+        if (slot != null) {
+            slot.removeFlow(cursor);
+            release(cursor.getId(), slot);
+        }
+    }
+
+    /**
+     * Reserves room for an input within the global limit.
+     *
+     * @return {@code true} if the input may be registered.
+     */
+    private boolean reserve() {
+        if (pending == null) {
+            return true;
+        }
+
+        int count;
+        do {
+            count = pending.get();
+            if (count >= globalLimit) {
+                return false;
+            }
+        } while (!pending.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    /**
+     * Accounts for an input taken out of its slot, whatever its outcome.
+     *
+     * @param registeredInput The input.
+     */
+    private void removed(PendingInput<?> registeredInput) {
+        if (pending != null) {
+            pending.decrementAndGet();
         }
+
+        if (metrics != null) {
+            metrics.removed(registeredInput.getRequiredInputType());
+        }
+    }
+
+    /**
+     * Removes a slot from the registry once it has been retired. Only the slot itself is removed,
+     * never one that has replaced it.
+     *
+     * @param id The ID of the slot.
+     * @param slot The slot.
+     */
+    private void release(UUID id, InputSlot slot) {
+        if (slot.isRetired()) {
+            inputs.remove(id, slot);
+        }
+    }
+
+    @Override
+    public InputMetrics getMetrics() {
+        return metrics != null ? metrics : InputMetrics.disabled();
+    }
+
+    @Override
+    public void tick() {
+        try {
+            if (expirations != null) {
+                expirations.advance(System.nanoTime(), expireAction);
+            }
+        } finally {
+            // Also runs the handlers of inputs that have just expired
+            if (executor != null) {
+                executor.tick();
+            }
+        }
+    }
+
+    private void schedule(PendingInput<?> pending) {
+        if (expirations != null && pending.isExpiring()) {
+            pending.timeout(expirations.schedule(pending, pending.getDeadline()));
+        }
+    }
+
+    private void schedule(FlowCursor cursor) {
+        if (expirations != null && cursor.isExpiring()) {
+            cursor.timeout(expirations.schedule(cursor, cursor.getDeadline()));
+        }
+    }
+
+    private void expire(Object expiring) {
+        if (expiring instanceof PendingInput<?> pending) {
+            expire(pending);
+        } else {
+            expire((FlowCursor) expiring);
+        }
+    }
+
+    /**
+     * Expires a flow whose step has timed out, unless it has moved on in the meantime.
+     *
+     * @param cursor The cursor of the flow.
+     */
+    private void expire(FlowCursor cursor) {
+        synchronized (cursor) {
+            // A step entered since has a later deadline
+            if (cursor.isEnded() || !cursor.isExpired(System.nanoTime())) {
+                return;
+            }
+            end(cursor);
+        }
+
+        Consumer<FlowContext> handler = cursor.getFlow().getExpiredHandler();
+        if (handler != null) {
+            handle(cursor.getId(), () -> handler.accept(cursor));
+        }
+    }
+
+    /**
+     * Expires an input whose deadline has passed, unless it has been consumed in the meantime.
+     *
+     * @param pending The input.
+     */
+    private void expire(PendingInput<?> pending) {
+        UUID id = pending.getId();
+        InputSlot slot = inputs.get(id);
+        // Whoever removes the input from the queue owns it
+        if (slot == null) {
+            return;
+        }
+
+        boolean removed = slot.remove(pending);
+        release(id, slot);
+        if (!removed) {
+            return;
+        }
+
+        removed(pending);
+        reject(pending, pending.getExpiredHandler(), null, InputOutcome.EXPIRED);
+    }
+
+    /**
+     * The results of the parsers that ran for one message, by parser identity.
+     * Few parsers run per message, so they are found by a scan.
+     */
+    private static final class Parses {
+
+        private InputParser<?>[] parsers = new InputParser<?>[4];
+        private Optional<?>[] results = new Optional<?>[4];
+        private int size;
+
+        private Optional<?> get(InputParser<?> parser) {
+            for (int i = 0; i < size; i++) {
+                if (parsers[i] == parser) {
+                    return results[i];
+                }
+            }
+            return null;
+        }
+
+        private void put(InputParser<?> parser, Optional<?> result) {
+            if (size == parsers.length) {
+                parsers = Arrays.copyOf(parsers, size * 2);
+                results = Arrays.copyOf(results, size * 2);
+            }
+            parsers[size] = parser;
+            results[size] = result;
+            size++;
+        }
+
     }
 
 }
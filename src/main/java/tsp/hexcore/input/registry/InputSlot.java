@@ -0,0 +1,319 @@
+package tsp.hexcore.input.registry;
+
+import java.util.ArrayDeque;
+import java.util.function.Consumer;
+
+/**
+ * Everything a player is awaiting: the queue of {@link PendingInput}s and the running flow.
+ * <p>
+ * Most players await a single input, which is held inline. The slot only inflates to a queue
+ * when a second input is registered, and deflates again once the queue has been consumed.
+ * Inputs with a {@link PendingInput#getRoute() route} are kept apart in a {@link RouteTrie}, created on demand.
+ * The slot is guarded by its own monitor, which is only ever contended by the same player.
+ * </p>
+ * <p>
+ * An operation taking something out of the slot retires it once it is left empty, in the same critical section.
+ * A retired slot refuses new inputs and flows, and is removed from the registry by whoever sees it retired.
+ * A registration racing with the removal therefore never lands in a slot that is about to be dropped,
+ * it retries with a new slot instead.
+ * </p>
+ *
+ * @author TheSilentPro (Silent)
+ */
+final class InputSlot {
+
+    private static final PendingInput<?>[] NO_INPUTS = new PendingInput<?>[0];
+
+    private PendingInput<?> first;
+    // Inputs after the first, only present while there are any
+    private ArrayDeque<PendingInput<?>> rest;
+    // Routed inputs, only present while there are any
+    private RouteTrie routes;
+    private FlowCursor flow;
+    private volatile boolean retired;
+
+    /**
+     * Appends an input to the queue, or files it by its route, unless the slot is full.
+     *
+     * @param input The input.
+     * @param limit The maximum number of inputs in the slot.
+     * @param dropOldest Whether a full slot drops its oldest input to make room, instead of refusing the new one.
+     *                   The oldest input waiting on the same route is dropped, or on no route for unrouted inputs.
+     * @return {@code null} if the input was added, the oldest input if it was dropped to add the new one,
+     *         or the given input itself if it was not added, because the slot is full or has been
+     *         {@link #isRetired() retired}.
+     */
+    synchronized PendingInput<?> add(PendingInput<?> input, int limit, boolean dropOldest) {
+        if (retired) {
+            return input;
+        }
+
+        PendingInput<?> dropped = null;
+        if (size() >= limit) {
+            if (dropOldest) {
+                if (input.getRoute() == null) {
+                    dropped = first;
+                    if (dropped != null) {
+                        advance();
+                    }
+                } else if (routes != null) {
+                    dropped = routes.pollOldest(input);
+                }
+            }
+
+            if (dropped == null) {
+                return input;
+            }
+        }
+
+        if (input.getRoute() != null) {
+            if (routes == null) {
+                routes = new RouteTrie();
+            }
+            routes.add(input);
+        } else if (first == null) {
+            first = input;
+        } else {
+            if (rest == null) {
+                rest = new ArrayDeque<>(2);
+            }
+            rest.add(input);
+        }
+        return dropped;
+    }
+
+    /**
+     * Takes the input a message goes to out of the slot: the input it is routed to,
+     * or otherwise the first input of the queue.
+     *
+     * @param message The message.
+     * @return The input, or {@code null} if there is none for the message.
+     */
+    synchronized PendingInput<?> poll(String message) {
+        PendingInput<?> input = pollRoute(message);
+        if (input == null) {
+            input = first;
+            if (input != null) {
+                advance();
+            }
+        }
+
+        retireIfEmpty();
+        return input;
+    }
+
+    /**
+     * Takes the input a message is routed to out of the slot, leaving the queue alone.
+     *
+     * @param message The message.
+     * @return The input, or {@code null} if the message matches no route.
+     */
+    synchronized PendingInput<?> pollRouted(String message) {
+        PendingInput<?> input = pollRoute(message);
+        retireIfEmpty();
+        return input;
+    }
+
+    /**
+     * Copies the queue of unrouted inputs, in order.
+     *
+     * @return The inputs, possibly none.
+     */
+    synchronized PendingInput<?>[] queued() {
+        if (first == null) {
+            return NO_INPUTS;
+        }
+
+        PendingInput<?>[] queued = new PendingInput<?>[rest != null ? 1 + rest.size() : 1];
+        queued[0] = first;
+        if (rest != null) {
+            int i = 1;
+            for (PendingInput<?> input : rest) {
+                queued[i++] = input;
+            }
+        }
+        return queued;
+    }
+
+    /**
+     * Takes a specific input out of the slot.
+     *
+     * @param input The input.
+     * @return {@code true} if the input was in the slot.
+     */
+    synchronized boolean remove(PendingInput<?> input) {
+        boolean removed = false;
+        if (input.getRoute() != null) {
+            if (routes != null && routes.remove(input)) {
+                if (routes.isEmpty()) {
+                    routes = null;
+                }
+                removed = true;
+            }
+        } else if (first == input) {
+            advance();
+            removed = true;
+        } else if (rest != null && rest.remove(input)) {
+            if (rest.isEmpty()) {
+                rest = null;
+            }
+            removed = true;
+        }
+
+        retireIfEmpty();
+        return removed;
+    }
+
+    /**
+     * Finds the input in the slot wrapping an input.
+     *
+     * @param input The registered input.
+     * @return The input in the slot, or {@code null} if it is not in the slot.
+     */
+    synchronized PendingInput<?> find(Object input) {
+        if (first != null && first.getInput() == input) {
+            return first;
+        }
+
+        if (rest != null) {
+            for (PendingInput<?> pending : rest) {
+                if (pending.getInput() == input) {
+                    return pending;
+                }
+            }
+        }
+        return routes != null ? routes.find(input) : null;
+    }
+
+    /**
+     * Retires the slot and takes the running flow out of it, the queue is left to {@link #drain(Consumer)}.
+     *
+     * @return The flow that was running, or {@code null}.
+     */
+    synchronized FlowCursor close() {
+        retired = true;
+        FlowCursor flow = this.flow;
+        this.flow = null;
+        return flow;
+    }
+
+    /**
+     * Takes every input out of the slot, retiring it if it is left empty.
+     *
+     * @param action The action receiving each input, the queue in order first.
+     * @return The number of inputs.
+     */
+    int drain(Consumer<PendingInput<?>> action) {
+        PendingInput<?> first;
+        ArrayDeque<PendingInput<?>> rest;
+        RouteTrie routes;
+        synchronized (this) {
+            first = this.first;
+            rest = this.rest;
+            routes = this.routes;
+            this.first = null;
+            this.rest = null;
+            this.routes = null;
+            retireIfEmpty();
+        }
+
+        int drained = 0;
+        if (first != null) {
+            action.accept(first);
+            drained++;
+        }
+
+        if (rest != null) {
+            rest.forEach(action);
+            drained += rest.size();
+        }
+
+        if (routes != null) {
+            routes.forEach(action);
+            drained += routes.size();
+        }
+        return drained;
+    }
+
+    synchronized FlowCursor getFlow() {
+        return flow;
+    }
+
+    /**
+     * Sets the running flow.
+     *
+     * @param flow The flow.
+     * @return The flow that was running before, or the given flow itself if the slot has been retired
+     *         and the flow was not set.
+     */
+    synchronized FlowCursor setFlow(FlowCursor flow) {
+        if (retired) {
+            return flow;
+        }
+
+        FlowCursor previous = this.flow;
+        this.flow = flow;
+        return previous;
+    }
+
+    /**
+     * Clears the running flow, if it is the given one.
+     *
+     * @param flow The flow.
+     */
+    synchronized void removeFlow(FlowCursor flow) {
+        if (this.flow == flow) {
+            this.flow = null;
+        }
+        retireIfEmpty();
+    }
+
+    /**
+     * Checks whether the slot has been retired, once it is it stays so.
+     *
+     * @return {@code true} if the slot has been retired and should be removed from the registry.
+     */
+    boolean isRetired() {
+        return retired;
+    }
+
+    private int size() {
+        int size = routes != null ? routes.size() : 0;
+        if (first == null) {
+            return size;
+        }
+        return size + (rest != null ? 1 + rest.size() : 1);
+    }
+
+    private PendingInput<?> pollRoute(String message) {
+        if (routes == null) {
+            return null;
+        }
+
+        PendingInput<?> input = routes.poll(message);
+        if (routes.isEmpty()) {
+            routes = null;
+        }
+        return input;
+    }
+
+    private void retireIfEmpty() {
+        if (first == null && routes == null && flow == null) {
+            retired = true;
+        }
+    }
+
+    private void advance() {
+        if (rest == null) {
+            first = null;
+            return;
+        }
+
+        first = rest.poll();
+        if (rest.isEmpty()) {
+            // Deflate, most players are back to a single input or none
+            rest = null;
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package tsp.hexcore.input.registry;
+
+/**
+ * What happens when a player registers an input while already at the
+ * {@link InputRegistryBuilder#perPlayerLimit(int, OverflowPolicy) limit} of pending inputs.
+ * Either way, the input that is dropped ends with {@link tsp.hexcore.input.InputOutcome#OVERFLOW}.
+ *
+ * @author TheSilentPro (Silent)
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The new input is not registered.
+     */
+    REJECT_NEWEST,
+
+    /**
+     * The input that has been waiting the longest is dropped to make room for the new one.
+     * Of {@link tsp.hexcore.input.Input#getRoute() routed} inputs, only one waiting on the same route is dropped;
+     * if there is none, the new input is rejected.
+     */
+    DROP_OLDEST
+
+}
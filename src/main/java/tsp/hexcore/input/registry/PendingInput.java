@@ -0,0 +1,299 @@
+package tsp.hexcore.input.registry;
+
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import tsp.hexcore.input.Input;
+import tsp.hexcore.input.InputOutcome;
+import tsp.hexcore.input.parser.InputParser;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * An {@link Input} as held by the {@link InputRegistryImpl registry} while it awaits a response.
+ * Delegates to the registered input and carries the state the registry compiles for it at registration,
+ * so that dispatching a message needs no further lookups or allocations.
+ *
+ * @param <T> The type of input expected.
+ * @author TheSilentPro (Silent)
+ */
+final class PendingInput<T> implements Input<T> {
+
+    // Longer durations are treated as never expiring
+    private static final Duration MAX_DEADLINE = Duration.ofDays(365L * 100);
+
+    private final Input<T> input;
+    // Fixed at registration, the slot files the input by them
+    private final String route;
+    private final boolean keyword;
+    private volatile boolean expiring;
+    private volatile long deadline;
+    private volatile ExpirationWheel<?>.Timeout timeout;
+    // Only set when the registry records metrics
+    private long registered;
+
+    PendingInput(Input<T> input) {
+        this.input = input;
+        this.route = input.getRoute();
+        this.keyword = input.isKeyword();
+        compile();
+    }
+
+    /**
+     * Computes the monotonic deadline from the duration and timestamp of the input.
+     */
+    void compile() {
+        Duration duration = input.getDuration();
+        if (duration == null || input.shouldIgnoreExpired() || duration.compareTo(MAX_DEADLINE) > 0) {
+            this.expiring = false;
+            return;
+        }
+
+        Duration remaining = duration.minus(Duration.between(input.getTimestamp(), Instant.now()));
+        this.deadline = System.nanoTime() + (remaining.isNegative() ? 0 : remaining.toNanos());
+        this.expiring = true;
+    }
+
+    /**
+     * Checks whether the input expires, i.e. it has a deadline and expiration is not ignored.
+     *
+     * @return {@code true} if the input expires.
+     */
+    boolean isExpiring() {
+        return expiring;
+    }
+
+    /**
+     * Gets the deadline of the input.
+     *
+     * @return The {@link System#nanoTime()} at which the input expires, only meaningful if {@link #isExpiring()}.
+     */
+    long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Checks whether the input has expired and the expiration should be handled.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     * @return {@code true} if the input has expired.
+     */
+    boolean isExpired(long now) {
+        return expiring && now - deadline > 0;
+    }
+
+    /**
+     * Gets the time the input was registered at.
+     *
+     * @return The {@link System#nanoTime()} of the registration, only set when the registry records metrics.
+     */
+    long getRegistered() {
+        return registered;
+    }
+
+    /**
+     * Sets the time the input was registered at, before it is queued.
+     *
+     * @param registered The {@link System#nanoTime()} of the registration.
+     */
+    void registered(long registered) {
+        this.registered = registered;
+    }
+
+    /**
+     * Attaches the deadline scheduled for this input.
+     *
+     * @param timeout The timeout.
+     */
+    void timeout(ExpirationWheel<?>.Timeout timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Cancels the scheduled deadline, if any. Called once the input has been taken out of the registry.
+     */
+    void cancelTimeout() {
+        ExpirationWheel<?>.Timeout timeout = this.timeout;
+        if (timeout != null) {
+            this.timeout = null;
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Gets the input that was registered.
+     *
+     * @return The input.
+     */
+    Input<T> getInput() {
+        return input;
+    }
+
+    @Override
+    public Input<T> until(Duration duration) {
+        input.until(duration);
+        return this;
+    }
+
+    @Override
+    public Input<T> then(Consumer<T> handler) {
+        input.then(handler);
+        return this;
+    }
+
+    @Override
+    public Input<T> then(BiConsumer<T, AsyncPlayerChatEvent> handler) {
+        input.then(handler);
+        return this;
+    }
+
+    @Override
+    public Input<T> mismatch(Consumer<String> handler) {
+        input.mismatch(handler);
+        return this;
+    }
+
+    @Override
+    public Input<T> expired(Consumer<String> handler) {
+        input.expired(handler);
+        return this;
+    }
+
+    @Override
+    public Input<T> cancelled(Consumer<InputOutcome> handler) {
+        input.cancelled(handler);
+        return this;
+    }
+
+    @Override
+    public Input<T> keyword(String keyword) {
+        input.keyword(keyword);
+        return this;
+    }
+
+    @Override
+    public Input<T> prefix(String prefix) {
+        input.prefix(prefix);
+        return this;
+    }
+
+    @Override
+    public Input<T> parser(InputParser<T> parser) {
+        input.parser(parser);
+        return this;
+    }
+
+    @Override
+    public Input<T> timestamp(Instant timestamp) {
+        input.timestamp(timestamp);
+        return this;
+    }
+
+    @Override
+    public Input<T> ignoreExpired() {
+        input.ignoreExpired();
+        return this;
+    }
+
+    @Override
+    public Input<T> register(InputRegistry registry) {
+        input.register(registry);
+        return this;
+    }
+
+    @Override
+    public CompletableFuture<T> future() {
+        return input.future();
+    }
+
+    @Override
+    public void settle(T value, Throwable cause) {
+        input.settle(value, cause);
+    }
+
+    // Getters
+
+    @Override
+    public UUID getId() {
+        return input.getId();
+    }
+
+    @Override
+    public Duration getDuration() {
+        return input.getDuration();
+    }
+
+    @Override
+    public Instant getTimestamp() {
+        return input.getTimestamp();
+    }
+
+    @Override
+    public Consumer<T> getInputHandler() {
+        return input.getInputHandler();
+    }
+
+    @Override
+    public BiConsumer<T, AsyncPlayerChatEvent> getBiInputHandler() {
+        return input.getBiInputHandler();
+    }
+
+    @Override
+    public Consumer<String> getMismatchHandler() {
+        return input.getMismatchHandler();
+    }
+
+    @Override
+    public Consumer<String> getExpiredHandler() {
+        return input.getExpiredHandler();
+    }
+
+    @Override
+    public Consumer<InputOutcome> getCancelledHandler() {
+        return input.getCancelledHandler();
+    }
+
+    @Override
+    public String getRoute() {
+        return route;
+    }
+
+    @Override
+    public boolean isKeyword() {
+        return keyword;
+    }
+
+    @Override
+    public InputParser<T> getParser() {
+        return input.getParser();
+    }
+
+    @Override
+    public CompletableFuture<T> getFuture() {
+        return input.getFuture();
+    }
+
+    @Override
+    public Class<T> getRequiredInputType() {
+        return input.getRequiredInputType();
+    }
+
+    @Override
+    public boolean hasExpired() {
+        return input.hasExpired();
+    }
+
+    @Override
+    public boolean shouldIgnoreExpired() {
+        return input.shouldIgnoreExpired();
+    }
+
+    @Override
+    public InputRegistry getRegistry() {
+        return input.getRegistry();
+    }
+
+}
@@ -0,0 +1,259 @@
+package tsp.hexcore.input.registry;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * The {@link tsp.hexcore.input.Input#keyword(String) keyword} and {@link tsp.hexcore.input.Input#prefix(String) prefix}
+ * routed inputs of a player, in a trie of their routes ignoring case.
+ * A message is routed by walking it through the trie once, so finding its input takes time in the length
+ * of the matched route, not in the number of inputs. The longest matching route wins, and on the same route a keyword
+ * wins over a prefix. Inputs on the same route are queued in order.
+ * <p>
+ * Not thread safe, guarded by its {@link InputSlot}.
+ * </p>
+ *
+ * @author TheSilentPro (Silent)
+ */
+final class RouteTrie {
+
+    private static final char[] NO_CHARS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    private final Node root = new Node();
+    private int size;
+
+    void add(PendingInput<?> input) {
+        String route = input.getRoute();
+        Node node = root;
+        for (int i = 0; i < route.length(); i++) {
+            node = node.childOrCreate(fold(route.charAt(i)));
+        }
+
+        node.queue(input.isKeyword(), true).add(input);
+        size++;
+    }
+
+    /**
+     * Takes the input a message is routed to out of the trie.
+     *
+     * @param message The message.
+     * @return The input, or {@code null} if no route matches.
+     */
+    PendingInput<?> poll(String message) {
+        Node node = root;
+        Node prefixed = null;
+        int prefixLength = 0;
+        for (int i = 0; ; i++) {
+            if (node.prefixed != null) {
+                prefixed = node;
+                prefixLength = i;
+            }
+
+            if (i == message.length()) {
+                if (node.keywords != null) {
+                    return poll(message, i, node, true);
+                }
+                break;
+            }
+
+            node = node.child(fold(message.charAt(i)));
+            if (node == null) {
+                break;
+            }
+        }
+
+        return prefixed != null ? poll(message, prefixLength, prefixed, false) : null;
+    }
+
+    /**
+     * Takes the input that has been waiting longest on the same route as another input out of the trie.
+     *
+     * @param input The other input.
+     * @return The input, or {@code null} if none waits on the route.
+     */
+    PendingInput<?> pollOldest(PendingInput<?> input) {
+        Node node = find(input.getRoute());
+        if (node == null || node.queue(input.isKeyword(), false) == null) {
+            return null;
+        }
+        return poll(input.getRoute(), input.getRoute().length(), node, input.isKeyword());
+    }
+
+    /**
+     * Takes a specific input out of the trie.
+     *
+     * @param input The input.
+     * @return {@code true} if the input was in the trie.
+     */
+    boolean remove(PendingInput<?> input) {
+        Node node = find(input.getRoute());
+        ArrayDeque<PendingInput<?>> queue = node != null ? node.queue(input.isKeyword(), false) : null;
+        if (queue == null || !queue.remove(input)) {
+            return false;
+        }
+
+        size--;
+        if (queue.isEmpty()) {
+            node.clear(input.isKeyword());
+            prune(input.getRoute(), input.getRoute().length());
+        }
+        return true;
+    }
+
+    /**
+     * Finds the routed input wrapping an input.
+     *
+     * @param input The registered input.
+     * @return The routed input, or {@code null} if it is not in the trie.
+     */
+    PendingInput<?> find(Object input) {
+        PendingInput<?>[] found = new PendingInput<?>[1];
+        forEach(pending -> {
+            if (found[0] == null && pending.getInput() == input) {
+                found[0] = pending;
+            }
+        });
+        return found[0];
+    }
+
+    void forEach(Consumer<PendingInput<?>> action) {
+        forEach(root, action);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private PendingInput<?> poll(String route, int length, Node node, boolean keyword) {
+        ArrayDeque<PendingInput<?>> queue = node.queue(keyword, false);
+        PendingInput<?> input = queue.poll();
+        size--;
+        if (queue.isEmpty()) {
+            node.clear(keyword);
+            prune(route, length);
+        }
+        return input;
+    }
+
+    private Node find(String route) {
+        Node node = root;
+        for (int i = 0; i < route.length() && node != null; i++) {
+            node = node.child(fold(route.charAt(i)));
+        }
+        return node;
+    }
+
+    /**
+     * Removes the nodes along a route that no longer lead to any input, from the end of the route.
+     *
+     * @param route The route, or a message starting with it.
+     * @param length The length of the route.
+     */
+    private void prune(String route, int length) {
+        Node[] path = new Node[length + 1];
+        path[0] = root;
+        int depth = 0;
+        while (depth < length) {
+            path[depth + 1] = path[depth].child(fold(route.charAt(depth)));
+            depth++;
+        }
+
+        for (; depth > 0 && path[depth].isEmpty(); depth--) {
+            path[depth - 1].removeChild(fold(route.charAt(depth - 1)));
+        }
+    }
+
+    private static void forEach(Node node, Consumer<PendingInput<?>> action) {
+        if (node.keywords != null) {
+            node.keywords.forEach(action);
+        }
+        if (node.prefixed != null) {
+            node.prefixed.forEach(action);
+        }
+        for (Node child : node.children) {
+            forEach(child, action);
+        }
+    }
+
+    private static char fold(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    private static final class Node {
+
+        // Children are few, looked up by a scan over their characters
+        private char[] chars = NO_CHARS;
+        private Node[] children = NO_NODES;
+        // Only present while inputs are queued on the route
+        private ArrayDeque<PendingInput<?>> keywords;
+        private ArrayDeque<PendingInput<?>> prefixed;
+
+        private Node child(char c) {
+            for (int i = 0; i < chars.length; i++) {
+                if (chars[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private Node childOrCreate(char c) {
+            Node child = child(c);
+            if (child == null) {
+                child = new Node();
+                chars = Arrays.copyOf(chars, chars.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                chars[chars.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+
+        private void removeChild(char c) {
+            for (int i = 0; i < chars.length; i++) {
+                if (chars[i] == c) {
+                    int last = chars.length - 1;
+                    chars[i] = chars[last];
+                    children[i] = children[last];
+                    chars = last == 0 ? NO_CHARS : Arrays.copyOf(chars, last);
+                    children = last == 0 ? NO_NODES : Arrays.copyOf(children, last);
+                    return;
+                }
+            }
+        }
+
+        private ArrayDeque<PendingInput<?>> queue(boolean keyword, boolean create) {
+            if (keyword) {
+                if (keywords == null && create) {
+                    keywords = new ArrayDeque<>(2);
+                }
+                return keywords;
+            }
+
+            if (prefixed == null && create) {
+                prefixed = new ArrayDeque<>(2);
+            }
+            return prefixed;
+        }
+
+        private void clear(boolean keyword) {
+            if (keyword) {
+                keywords = null;
+            } else {
+                prefixed = null;
+            }
+        }
+
+        private boolean isEmpty() {
+            return keywords == null && prefixed == null && chars.length == 0;
+        }
+
+    }
+
+}
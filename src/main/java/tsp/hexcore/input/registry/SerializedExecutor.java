@@ -0,0 +1,106 @@
+package tsp.hexcore.input.registry;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A {@link HandlerExecutor} running handlers on an {@link Executor}, one at a time and in order for each id,
+ * while handlers of different ids run concurrently.
+ * <p>
+ * Each id with queued handlers has a lane, which is present in the map exactly as long as one task of
+ * the executor is draining it. All changes to a lane are made under the map's lock for its id,
+ * the handlers themselves run outside of it.
+ * If the executor rejects a lane, the thread that started it drains it inline.
+ * </p>
+ *
+ * @author TheSilentPro (Silent)
+ * @see HandlerExecutor#serialized(Executor)
+ */
+final class SerializedExecutor implements HandlerExecutor {
+
+    private final Executor executor;
+    private final Map<UUID, Lane> lanes = new ConcurrentHashMap<>();
+
+    SerializedExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public void execute(@NotNull UUID id, @NotNull Runnable handler) {
+        Lane[] started = new Lane[1];
+        lanes.compute(id, (k, lane) -> {
+            if (lane == null) {
+                lane = new Lane(k);
+                started[0] = lane;
+            }
+            lane.pending.add(handler);
+            return lane;
+        });
+
+        if (started[0] != null) {
+            try {
+                executor.execute(started[0]);
+            } catch (RejectedExecutionException e) {
+                // Other threads may have queued handlers on the lane already, drain it here instead of dropping them
+                started[0].run();
+            }
+        }
+    }
+
+    private final class Lane implements Runnable {
+
+        private final UUID id;
+        // Guarded by the map's lock for the id
+        private ArrayDeque<Runnable> pending = new ArrayDeque<>();
+        private ArrayDeque<Runnable> batch;
+
+        private Lane(UUID id) {
+            this.id = id;
+        }
+
+        @Override
+        public void run() {
+            ArrayDeque<Runnable> handlers;
+            while ((handlers = take()) != null) {
+                Runnable handler;
+                while ((handler = handlers.poll()) != null) {
+                    // A failing handler must not stall the lane, not even with an error, as the lane would never be retired
+                    try {
+                        handler.run();
+                    } catch (Throwable e) {
+                        Thread thread = Thread.currentThread();
+                        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Takes the handlers queued so far, or retires the lane if there are none.
+         *
+         * @return The handlers, or {@code null} if the lane has been retired.
+         */
+        private ArrayDeque<Runnable> take() {
+            batch = null;
+            // The lane in the map is always this one, it is only removed here
+            lanes.computeIfPresent(id, (k, lane) -> {
+                if (pending.isEmpty()) {
+                    return null;
+                }
+
+                batch = pending;
+                pending = new ArrayDeque<>();
+                return lane;
+            });
+            return batch;
+        }
+
+    }
+
+}
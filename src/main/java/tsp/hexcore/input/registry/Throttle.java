@@ -0,0 +1,57 @@
+package tsp.hexcore.input.registry;
+
+/**
+ * The flood limit of a player, a token bucket kept as the time it is full again.
+ * Kept apart from the {@link InputSlot}, which is replaced whenever its last input is taken,
+ * so a player re-prompted after every message is still limited. Removed when the player leaves.
+ *
+ * @author TheSilentPro (Silent)
+ */
+final class Throttle {
+
+    /**
+     * The message is within the flood limit.
+     */
+    static final int ADMITTED = 0;
+    /**
+     * The message is over the flood limit and the first of its run.
+     */
+    static final int THROTTLED = 1;
+    /**
+     * The message is over the flood limit, following another one that was throttled.
+     */
+    static final int SUPPRESSED = 2;
+
+    private long fullAt;
+    private boolean throttled;
+
+    Throttle(long now) {
+        this.fullAt = now;
+    }
+
+    /**
+     * Admits a message under the flood limit.
+     * Each message moves the time the bucket is full again an interval on, a message is over the limit if it would move it
+     * further than the tolerance ahead of now.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     * @param interval The time in nanoseconds to refill the bucket by one message.
+     * @param tolerance The time in nanoseconds the bucket may be ahead, the interval times one less than the burst.
+     * @return {@link #ADMITTED}, {@link #THROTTLED} or {@link #SUPPRESSED}.
+     */
+    synchronized int admit(long now, long interval, long tolerance) {
+        long fullAt = this.fullAt - now > 0 ? this.fullAt : now;
+        if (fullAt - now > tolerance) {
+            if (throttled) {
+                return SUPPRESSED;
+            }
+            throttled = true;
+            return THROTTLED;
+        }
+
+        this.fullAt = fullAt + interval;
+        this.throttled = false;
+        return ADMITTED;
+    }
+
+}
@@ -0,0 +1,74 @@
+package tsp.hexcore.input.registry;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A {@link HandlerExecutor} that queues handlers from any thread and runs them on the ticking thread,
+ * within a time budget per tick.
+ *
+ * @author TheSilentPro (Silent)
+ * @see HandlerExecutor#tick(java.time.Duration)
+ */
+final class TickExecutor implements HandlerExecutor {
+
+    private final long budget;
+    // Many producers, drained by the ticking thread only
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    TickExecutor(long budget) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("Budget must be positive: " + budget);
+        }
+
+        this.budget = budget;
+    }
+
+    @Override
+    public void execute(@NotNull UUID id, @NotNull Runnable handler) {
+        queue.offer(handler);
+    }
+
+    @Override
+    public void tick() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+
+        RuntimeException failure = null;
+        try {
+            long start = System.nanoTime();
+            Runnable handler;
+            // Always make progress, even if a single handler exceeds the budget
+            do {
+                handler = queue.poll();
+                if (handler == null) {
+                    break;
+                }
+
+                // A failing handler must not hold up the ones queued behind it
+                try {
+                    handler.run();
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            } while (System.nanoTime() - start < budget);
+        } finally {
+            draining.set(false);
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
@@ -1,13 +1,17 @@
 package tsp.hexcore.util;
 
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Consumer;
-import java.util.regex.Pattern;
 
 /**
  * A utility class that provides methods for parsing durations from string representations.
@@ -57,15 +61,53 @@ public final class DurationParser {
             Map.entry("forever", ChronoUnit.FOREVER)
     );
 
-    private static final Pattern SPLIT = Pattern.compile(" ");
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final int LETTERS = 26;
+
+    // Trie of the UNIT_MAP keys over lowercase ASCII letters, node 0 is the root.
+    // TRIE[node * LETTERS + letter] is the child node, or 0 if there is none.
+    private static final int[] TRIE;
+    // Length of the unit ending at a node, split in seconds and nanoseconds, or -1 if no unit ends there
+    private static final long[] UNIT_SECONDS;
+    private static final long[] UNIT_NANOS;
+
+    static {
+        List<int[]> nodes = new ArrayList<>();
+        nodes.add(new int[LETTERS]);
+        Map<Integer, ChronoUnit> terminals = new HashMap<>();
+        for (Map.Entry<String, ChronoUnit> entry : UNIT_MAP.entrySet()) {
+            int node = 0;
+            for (char c : entry.getKey().toCharArray()) {
+                int letter = c - 'a';
+                if (nodes.get(node)[letter] == 0) {
+                    nodes.get(node)[letter] = nodes.size();
+                    nodes.add(new int[LETTERS]);
+                }
+                node = nodes.get(node)[letter];
+            }
+            terminals.put(node, entry.getValue());
+        }
+
+        TRIE = new int[nodes.size() * LETTERS];
+        UNIT_SECONDS = new long[nodes.size()];
+        UNIT_NANOS = new long[nodes.size()];
+        for (int node = 0; node < nodes.size(); node++) {
+            System.arraycopy(nodes.get(node), 0, TRIE, node * LETTERS, LETTERS);
+            ChronoUnit unit = terminals.get(node);
+            UNIT_SECONDS[node] = unit != null ? unit.getDuration().getSeconds() : -1;
+            UNIT_NANOS[node] = unit != null ? unit.getDuration().getNano() : -1;
+        }
+    }
 
     /**
      * Parses the given input string into a {@link Duration}.
      * The input string is expected to represent a duration with valid time units (e.g., "1d 2h 3m").
      * It can contain days, hours, minutes, and seconds, with optional spaces between values.
+     * Units are matched case-insensitively.
      *
      * @param input the input string representing the duration
      * @return the parsed {@link Duration} object, or null if the input string cannot be parsed into a valid duration
+     * or the duration is too long to be represented
      */
     @Nullable
     public static Duration parse(@Nullable String input, @Nullable Consumer<String> invalidPartHandler, @Nullable Consumer<String> invalidNumberPartHandler) {
@@ -73,69 +115,139 @@ public final class DurationParser {
             return null;
         }
 
-        Duration duration = Duration.ZERO;
-        int length = input.length();
-        int i = 0;
+        return parse(input, 0, input.length(), invalidPartHandler, invalidNumberPartHandler);
+    }
 
-        while (i < length) {
+    /**
+     * Parses a region of the given characters into a {@link Duration}, in the same format as {@link #parse(String, Consumer, Consumer)}.
+     * The region is parsed in a single pass: units are matched against a trie directly on the input characters
+     * and the total is accumulated in primitives, so the only object created is the resulting {@link Duration}.
+     *
+     * @param input the characters
+     * @param start the start of the region, inclusive
+     * @param end the end of the region, exclusive
+     * @return the parsed {@link Duration} object, or null if the region cannot be parsed into a valid duration
+     */
+    @Nullable
+    public static Duration parse(@NotNull CharSequence input, int start, int end, @Nullable Consumer<String> invalidPartHandler, @Nullable Consumer<String> invalidNumberPartHandler) {
+        Objects.checkFromToIndex(start, end, input.length());
+        long seconds = 0;
+        long nanos = 0;
+        int i = start;
+
+        while (i < end) {
             // Skip whitespace before the number part
-            while (i < length && Character.isWhitespace(input.charAt(i))) {
+            while (i < end && Character.isWhitespace(input.charAt(i))) {
                 i++;
             }
 
-            if (i >= length) {
+            if (i >= end) {
                 break;
             }
 
             // Capture the number part
             int numberStart = i;
-            while (i < length && Character.isDigit(input.charAt(i))) {
+            long number = 0;
+            while (i < end && Character.isDigit(input.charAt(i))) {
+                number = add(multiply(number, 10), Character.digit(input.charAt(i), 10));
                 i++;
             }
 
             if (i == numberStart) {
                 // No number found, handle the invalid part
                 if (invalidNumberPartHandler != null) {
-                    invalidNumberPartHandler.accept(input.substring(i));
+                    invalidNumberPartHandler.accept(input.subSequence(i, end).toString());
                 }
                 break;
             }
 
-            String numberStr = input.substring(numberStart, i);
-            int number = Integer.parseInt(numberStr);
+            if (number < 0) {
+                // Too large to be represented
+                return null;
+            }
 
             // Skip whitespace after the number part
-            while (i < length && Character.isWhitespace(input.charAt(i))) {
+            while (i < end && Character.isWhitespace(input.charAt(i))) {
                 i++;
             }
 
-            // Capture the unit part
+            // Capture the unit part, walking the trie along the way
             int unitStart = i;
-            while (i < length && Character.isLetter(input.charAt(i))) {
+            int node = 0;
+            while (i < end && Character.isLetter(input.charAt(i))) {
+                if (node >= 0) {
+                    node = child(node, input.charAt(i));
+                }
                 i++;
             }
 
-            String unit = input.substring(unitStart, i).toLowerCase();
+            if (node > 0 && UNIT_SECONDS[node] >= 0) {
+                // number * (unit seconds + unit nanos / 10^9), without leaving the long range
+                long fraction = number % NANOS_PER_SECOND * UNIT_NANOS[node];
+                seconds = add(seconds, multiply(number, UNIT_SECONDS[node]));
+                seconds = add(seconds, multiply(number / NANOS_PER_SECOND, UNIT_NANOS[node]));
+                seconds = add(seconds, fraction / NANOS_PER_SECOND);
+                nanos += fraction % NANOS_PER_SECOND;
+                if (nanos >= NANOS_PER_SECOND) {
+                    nanos -= NANOS_PER_SECOND;
+                    seconds = add(seconds, 1);
+                }
 
-            // Look up the unit in the map
-            ChronoUnit unitType = UNIT_MAP.get(unit);
-            if (unitType != null) {
-                // Add the corresponding unit to the duration
-                duration = duration.plus(unitType.getDuration().multipliedBy(number));
+                if (seconds < 0) {
+                    return null;
+                }
             } else {
                 // If the unit is invalid, handle it
                 if (invalidPartHandler != null) {
-                    invalidPartHandler.accept(input.substring(unitStart, i));
+                    invalidPartHandler.accept(input.subSequence(unitStart, i).toString());
                 }
             }
 
             // Skip whitespace after the unit part and continue processing
-            while (i < length && Character.isWhitespace(input.charAt(i))) {
+            while (i < end && Character.isWhitespace(input.charAt(i))) {
                 i++;
             }
         }
 
-        return duration.isZero() ? null : duration;
+        return seconds == 0 && nanos == 0 ? null : Duration.ofSeconds(seconds, nanos);
+    }
+
+    /**
+     * Gets the child of a trie node for a letter, ignoring case.
+     *
+     * @return the child node, or {@code -1} if no unit continues with the letter
+     */
+    private static int child(int node, char c) {
+        if (c >= 'A' && c <= 'Z') {
+            c += 'a' - 'A';
+        }
+
+        if (c < 'a' || c > 'z') {
+            return -1;
+        }
+
+        int child = TRIE[node * LETTERS + c - 'a'];
+        return child == 0 ? -1 : child;
+    }
+
+    // Overflow aware arithmetic on non-negative values, -1 marks an overflow and is carried through
+
+    private static long multiply(long a, long b) {
+        if (a < 0 || b < 0) {
+            return -1;
+        }
+
+        long product = a * b;
+        return Math.multiplyHigh(a, b) != 0 || product < 0 ? -1 : product;
+    }
+
+    private static long add(long a, long b) {
+        if (a < 0 || b < 0) {
+            return -1;
+        }
+
+        long sum = a + b;
+        return sum < 0 ? -1 : sum;
     }
 
     public static Duration parse(@Nullable String input, @Nullable Consumer<String> invalidPartHandler) {
@@ -170,4 +282,16 @@ public final class DurationParser {
         return parseSafely(input, null, null);
     }
 
+    /**
+     * Parses a region of the given characters into a {@link Duration}, wrapping the result in an {@link Optional}.
+     *
+     * @param input the characters
+     * @param start the start of the region, inclusive
+     * @param end the end of the region, exclusive
+     * @return an {@link Optional} containing the parsed {@link Duration}, or an empty {@link Optional} if parsing fails
+     */
+    public static Optional<Duration> parseSafely(@NotNull CharSequence input, int start, int end) {
+        return Optional.ofNullable(parse(input, start, end, null, null));
+    }
+
 }
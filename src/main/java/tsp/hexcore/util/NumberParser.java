@@ -4,8 +4,15 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.text.NumberFormat;
-import java.text.ParseException;
+import java.text.ParsePosition;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A utility class that provides methods for parsing different numeric types from a string representation.
@@ -21,6 +28,22 @@ import java.util.Optional;
  */
 public final class NumberParser {
 
+    /**
+     * Returned by {@link #scanInt(CharSequence, int, int)} for invalid input, outside the range of {@code int}.
+     */
+    private static final long INVALID = Long.MIN_VALUE;
+
+    /**
+     * The locales formats are prepared for. Other locales are narrowed to their language, or else to {@link Locale#ROOT},
+     * so the prepared formats stay bounded whatever locales are asked for.
+     */
+    private static final Set<Locale> AVAILABLE = Set.copyOf(Arrays.asList(Locale.getAvailableLocales()));
+
+    /**
+     * Prepared formats per available locale.
+     */
+    private static final Map<Locale, PreparedFormat> FORMATS = new ConcurrentHashMap<>();
+
     // Private constructor to prevent instantiation
     private NumberParser() {
         throw new UnsupportedOperationException("Utility class.");
@@ -29,21 +52,46 @@ public final class NumberParser {
     /**
      * Attempts to parse the given string into a {@link Number}. This method can parse any number type, such as
      * integers, floating-point numbers, etc.
+     * The default {@link Locale.Category#FORMAT format} locale is used.
      *
      * @param s the string to parse
      * @return an {@link Optional} containing the parsed number if successful, or an empty {@link Optional} if parsing fails
      */
     @NotNull
     public static Optional<Number> parse(@Nullable String s) {
+        return parse(s, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Attempts to parse the given string into a {@link Number} using the conventions of the given locale,
+     * e.g. {@code 1.234,5} for {@link Locale#GERMANY}.
+     *
+     * @param s the string to parse
+     * @param locale the locale
+     * @return an {@link Optional} containing the parsed number if successful, or an empty {@link Optional} if parsing fails
+     */
+    @NotNull
+    public static Optional<Number> parse(@Nullable String s, @NotNull Locale locale) {
         if (s == null) {
             return Optional.empty();
         }
 
-        try {
-            return Optional.ofNullable(NumberFormat.getInstance().parse(s));
-        } catch (ParseException e) {
-            return Optional.empty();
+        return parse(s, 0, s.length(), locale);
+    }
+
+    /**
+     * Gets the prepared number format of the locale, or of the available locale it is narrowed to.
+     *
+     * @param locale the locale
+     * @return the prepared format
+     */
+    private static PreparedFormat format(Locale locale) {
+        PreparedFormat format = FORMATS.get(locale);
+        if (format == null) {
+            Locale available = AVAILABLE.contains(locale) ? locale : Locale.of(locale.getLanguage());
+            format = FORMATS.computeIfAbsent(AVAILABLE.contains(available) ? available : Locale.ROOT, PreparedFormat::new);
         }
+        return format;
     }
 
     /**
@@ -58,11 +106,7 @@ public final class NumberParser {
             return Optional.empty();
         }
 
-        try {
-            return Optional.of(Integer.parseInt(s));
-        } catch (NumberFormatException e) {
-            return Optional.empty();
-        }
+        return parseInteger(s, 0, s.length());
     }
 
     /**
@@ -77,11 +121,7 @@ public final class NumberParser {
             return Optional.empty();
         }
 
-        try {
-            return Optional.of(Long.parseLong(s));
-        } catch (NumberFormatException e) {
-            return Optional.empty();
-        }
+        return parseLong(s, 0, s.length());
     }
 
     /**
@@ -96,11 +136,7 @@ public final class NumberParser {
             return Optional.empty();
         }
 
-        try {
-            return Optional.of(Float.parseFloat(s));
-        } catch (NumberFormatException e) {
-            return Optional.empty();
-        }
+        return parseFloat(s, 0, s.length());
     }
 
     /**
@@ -115,11 +151,7 @@ public final class NumberParser {
             return Optional.empty();
         }
 
-        try {
-            return Optional.of(Double.parseDouble(s));
-        } catch (NumberFormatException e) {
-            return Optional.empty();
-        }
+        return parseDouble(s, 0, s.length());
     }
 
     /**
@@ -134,10 +166,378 @@ public final class NumberParser {
             return Optional.empty();
         }
 
+        return parseByte(s, 0, s.length());
+    }
+
+    // Regions
+    // Parse a slice of a larger text, such as one argument of a chat message, without copying it.
+
+    /**
+     * Attempts to parse a region of the given characters into a {@link Number}, using the default
+     * {@link Locale.Category#FORMAT format} locale.
+     *
+     * @param s the characters
+     * @param start the start of the region, inclusive
+     * @param end the end of the region, exclusive
+     * @return an {@link Optional} containing the parsed number if successful, or an empty {@link Optional} if parsing fails
+     */
+    @NotNull
+    public static Optional<Number> parse(@NotNull CharSequence s, int start, int end) {
+        return parse(s, start, end, Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    /**
+     * Attempts to parse a region of the given characters into a {@link Number} using the conventions of the given locale.
+     *
+     * @param s the characters
+     * @param start the start of the region, inclusive
+     * @param end the end of the region, exclusive
+     * @param locale the locale
+     * @return an {@link Optional} containing the parsed number if successful, or an empty {@link Optional} if parsing fails
+     */
+    @NotNull
+    public static Optional<Number> parse(@NotNull CharSequence s, int start, int end, @NotNull Locale locale) {
+        Objects.checkFromToIndex(start, end, s.length());
+        // NumberFormat only reads strings, this is free for a region spanning a whole string
+        String source = s.subSequence(start, end).toString();
+        PreparedFormat format = format(locale);
+        NumberFormat numberFormat = format.borrow();
         try {
-            return Optional.of(Byte.parseByte(s));
-        } catch (NumberFormatException e) {
+            // Fails with a null result rather than a ParseException
+            return Optional.ofNullable(numberFormat.parse(source, new ParsePosition(0)));
+        } finally {
+            format.release(numberFormat);
+        }
+    }
+
+    /**
+     * Attempts to parse a region of the given characters into an {@link Integer}.
+     *
+     * @param s the characters
+     * @param start the start of the region, inclusive
+     * @param end the end of the region, exclusive
+     * @return an {@link Optional} containing the parsed integer if successful, or an empty {@link Optional} if parsing fails
+     */
+    @NotNull
+    public static Optional<Integer> parseInteger(@NotNull CharSequence s, int start, int end) {
+        Objects.checkFromToIndex(start, end, s.length());
+        long value = scanInt(s, start, end);
+        return value != INVALID ? Optional.of((int) value) : Optional.empty();
+    }
+
+    /**
+     * Attempts to parse a region of the given characters into a {@link Long}.
+     *
+     * @param s the characters
+     * @param start the start of the region, inclusive
+     * @param end the end of the region, exclusive
+     * @return an {@link Optional} containing the parsed long if successful, or an empty {@link Optional} if parsing fails
+     */
+    @NotNull
+    public static Optional<Long> parseLong(@NotNull CharSequence s, int start, int end) {
+        Objects.checkFromToIndex(start, end, s.length());
+        return scanLong(s, start, end);
+    }
+
+    /**
+     * Attempts to parse a region of the given characters into a {@link Float}.
+     *
+     * @param s the characters
+     * @param start the start of the region, inclusive
+     * @param end the end of the region, exclusive
+     * @return an {@link Optional} containing the parsed float if successful, or an empty {@link Optional} if parsing fails
+     */
+    @NotNull
+    public static Optional<Float> parseFloat(@NotNull CharSequence s, int start, int end) {
+        Objects.checkFromToIndex(start, end, s.length());
+        if (!isFloatingPoint(s, start, end)) {
+            return Optional.empty();
+        }
+
+        // The JDK does the rounding, it only reads strings
+        return Optional.of(Float.parseFloat(s.subSequence(start, end).toString()));
+    }
+
+    /**
+     * Attempts to parse a region of the given characters into a {@link Double}.
+     *
+     * @param s the characters
+     * @param start the start of the region, inclusive
+     * @param end the end of the region, exclusive
+     * @return an {@link Optional} containing the parsed double if successful, or an empty {@link Optional} if parsing fails
+     */
+    @NotNull
+    public static Optional<Double> parseDouble(@NotNull CharSequence s, int start, int end) {
+        Objects.checkFromToIndex(start, end, s.length());
+        if (!isFloatingPoint(s, start, end)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(Double.parseDouble(s.subSequence(start, end).toString()));
+    }
+
+    /**
+     * Attempts to parse a region of the given characters into a {@link Byte}.
+     *
+     * @param s the characters
+     * @param start the start of the region, inclusive
+     * @param end the end of the region, exclusive
+     * @return an {@link Optional} containing the parsed byte if successful, or an empty {@link Optional} if parsing fails
+     */
+    @NotNull
+    public static Optional<Byte> parseByte(@NotNull CharSequence s, int start, int end) {
+        Objects.checkFromToIndex(start, end, s.length());
+        long value = scanInt(s, start, end);
+        return value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE ? Optional.of((byte) value) : Optional.empty();
+    }
+
+    // Scanners
+    // These accept exactly what the JDK parse methods accept, but report a mismatch without throwing.
+
+    /**
+     * Scans the region for an {@code int}, as {@link Integer#parseInt(String)} would.
+     *
+     * @param s The characters.
+     * @param start The start of the region, inclusive.
+     * @param end The end of the region, exclusive.
+     * @return The value, or {@link #INVALID} if the region is not a valid {@code int}.
+     */
+    private static long scanInt(CharSequence s, int start, int end) {
+        if (start >= end) {
+            return INVALID;
+        }
+
+        int i = start;
+        boolean negative = false;
+        char first = s.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == end) {
+                return INVALID;
+            }
+        }
+
+        // Accumulated negatively, as the range of negative values is larger
+        long limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        long result = 0;
+        while (i < end) {
+            int digit = digit(s.charAt(i++));
+            if (digit < 0) {
+                return INVALID;
+            }
+
+            result = result * 10 - digit;
+            if (result < limit) {
+                return INVALID;
+            }
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Scans the region for a {@code long}, as {@link Long#parseLong(String)} would.
+     *
+     * @param s The characters.
+     * @param start The start of the region, inclusive.
+     * @param end The end of the region, exclusive.
+     * @return The value, or an empty {@link Optional} if the region is not a valid {@code long}.
+     */
+    private static Optional<Long> scanLong(CharSequence s, int start, int end) {
+        if (start >= end) {
             return Optional.empty();
         }
+
+        int i = start;
+        boolean negative = false;
+        char first = s.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++i == end) {
+                return Optional.empty();
+            }
+        }
+
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyLimit = limit / 10;
+        long result = 0;
+        while (i < end) {
+            int digit = digit(s.charAt(i++));
+            if (digit < 0 || result < multiplyLimit) {
+                return Optional.empty();
+            }
+
+            result *= 10;
+            if (result < limit + digit) {
+                return Optional.empty();
+            }
+            result -= digit;
+        }
+        return Optional.of(negative ? result : -result);
+    }
+
+    private static int digit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        // Other Unicode decimal digits, as accepted by the JDK
+        return c < 128 ? -1 : Character.digit(c, 10);
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks whether the region is accepted by {@link Double#parseDouble(String)} and {@link Float#parseFloat(String)}:
+     * decimal and hexadecimal floating point literals with an optional type suffix, {@code NaN} and {@code Infinity},
+     * all optionally signed and surrounded by whitespace.
+     *
+     * @param s The characters.
+     * @param start The start of the region, inclusive.
+     * @param end The end of the region, exclusive.
+     * @return {@code true} if parsing the region would succeed.
+     */
+    private static boolean isFloatingPoint(CharSequence s, int start, int end) {
+        // Surrounding whitespace is trimmed, like String#trim
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        int i = start;
+        if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            i++;
+        }
+
+        if (i == end) {
+            return false;
+        }
+
+        char c = s.charAt(i);
+        if (c == 'N') {
+            return matches(s, i, end, "NaN");
+        }
+
+        if (c == 'I') {
+            return matches(s, i, end, "Infinity");
+        }
+
+        if (c == '0' && i + 1 < end && (s.charAt(i + 1) == 'x' || s.charAt(i + 1) == 'X')) {
+            return isHexFloatingPoint(s, i + 2, end);
+        }
+
+        int digits = 0;
+        boolean point = false;
+        while (i < end) {
+            c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+            i++;
+        }
+
+        if (digits == 0) {
+            return false;
+        }
+
+        if (i < end && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i = exponent(s, i + 1, end);
+            if (i < 0) {
+                return false;
+            }
+        }
+
+        return isSuffix(s, i, end);
+    }
+
+    private static boolean isHexFloatingPoint(CharSequence s, int i, int end) {
+        int digits = 0;
+        boolean point = false;
+        while (i < end) {
+            char c = s.charAt(i);
+            if ((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')) {
+                digits++;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+            i++;
+        }
+
+        // The binary exponent is mandatory for hexadecimal literals
+        if (digits == 0 || i == end || (s.charAt(i) != 'p' && s.charAt(i) != 'P')) {
+            return false;
+        }
+
+        i = exponent(s, i + 1, end);
+        return i >= 0 && isSuffix(s, i, end);
+    }
+
+    /**
+     * Scans an optionally signed exponent.
+     *
+     * @return The index after the exponent, or {@code -1} if it has no digits.
+     */
+    private static int exponent(CharSequence s, int i, int end) {
+        if (i < end && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            i++;
+        }
+
+        int start = i;
+        while (i < end && s.charAt(i) >= '0' && s.charAt(i) <= '9') {
+            i++;
+        }
+        return i == start ? -1 : i;
+    }
+
+    private static boolean isSuffix(CharSequence s, int i, int end) {
+        if (i == end) {
+            return true;
+        }
+
+        char c = s.charAt(i);
+        return i + 1 == end && (c == 'f' || c == 'F' || c == 'd' || c == 'D');
+    }
+
+    private static boolean matches(CharSequence s, int i, int end, String literal) {
+        if (end - i != literal.length()) {
+            return false;
+        }
+
+        for (int j = 0; j < literal.length(); j++) {
+            if (s.charAt(i + j) != literal.charAt(j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The number format of a locale. {@link NumberFormat} is not thread-safe, so a parse borrows the one spare copy,
+     * or clones its own while another parse holds it. Cloning a prepared format is much cheaper than resolving it again.
+     */
+    private static final class PreparedFormat {
+
+        private final NumberFormat prototype;
+        private final AtomicReference<NumberFormat> spare;
+
+        private PreparedFormat(Locale locale) {
+            this.prototype = NumberFormat.getInstance(locale);
+            this.spare = new AtomicReference<>((NumberFormat) prototype.clone());
+        }
+
+        private NumberFormat borrow() {
+            NumberFormat format = spare.getAndSet(null);
+            return format != null ? format : (NumberFormat) prototype.clone();
+        }
+
+        private void release(NumberFormat format) {
+            spare.set(format);
+        }
+
+    }
+
+}
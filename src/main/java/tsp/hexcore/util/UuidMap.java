@@ -0,0 +1,506 @@
+package tsp.hexcore.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A concurrent map keyed by {@link UUID}, specialized for lookups by player.
+ * <p>
+ * Keys are stored as their two {@code long} halves, side by side in a primitive array of an open-addressing table
+ * with linear probing, so a lookup hashes two longs and compares them in place, without node objects or {@link UUID#equals(Object)}.
+ * The table is split into segments. Reads take no lock: a slot's key never changes once the slot is used and
+ * its value is published with release semantics after the key. Writes lock their segment only.
+ * Removed entries leave a tombstone until their segment is rehashed, which also shrinks it.
+ * </p>
+ * <p>
+ * Like {@link java.util.concurrent.ConcurrentHashMap}, null keys and values are not allowed and iteration is weakly consistent.
+ * </p>
+ *
+ * @param <V> The type of the values.
+ * @author TheSilentPro (Silent)
+ */
+public final class UuidMap<V> extends AbstractMap<UUID, V> implements ConcurrentMap<UUID, V> {
+
+    private static final int SEGMENTS = 16;
+    private static final int SEGMENT_SHIFT = Integer.SIZE - Integer.numberOfTrailingZeros(SEGMENTS);
+    private static final int MIN_CAPACITY = 8;
+    private static final Object TOMBSTONE = new Object();
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle TABLES = MethodHandles.arrayElementVarHandle(Table[].class);
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    // The table of each segment, kept out of the segment to save an indirection on reads
+    private final Table[] tables = new Table[SEGMENTS];
+    private Set<Entry<UUID, V>> entrySet;
+
+    /**
+     * Creates an empty map.
+     */
+    public UuidMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map sized for the expected number of entries.
+     *
+     * @param expectedSize The expected number of entries.
+     */
+    public UuidMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size must not be negative: " + expectedSize);
+        }
+
+        int capacity = capacityFor(expectedSize / SEGMENTS + 1);
+        for (int i = 0; i < SEGMENTS; i++) {
+            tables[i] = new Table(capacity);
+            segments[i] = new Segment(tables, i);
+        }
+    }
+
+    @Override
+    public V get(Object key) {
+        if (!(key instanceof UUID id)) {
+            return null;
+        }
+
+        long msb = id.getMostSignificantBits();
+        long lsb = id.getLeastSignificantBits();
+        int hash = hash(msb, lsb);
+        Table table = (Table) TABLES.getAcquire(tables, hash >>> SEGMENT_SHIFT);
+        Object[] values = table.values;
+        long[] keys = table.keys;
+        int mask = values.length - 1;
+        for (int i = hash & mask; ; i = (i + 1) & mask) {
+            Object value = VALUES.getAcquire(values, i);
+            if (value == null) {
+                return null;
+            }
+
+            if (keys[i << 1] == msb && keys[(i << 1) + 1] == lsb) {
+                return value == TOMBSTONE ? null : cast(value);
+            }
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(@NotNull UUID key, @NotNull V value) {
+        Objects.requireNonNull(value);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            return cast(segment.put(key, value, false));
+        }
+    }
+
+    @Override
+    public V putIfAbsent(@NotNull UUID key, @NotNull V value) {
+        Objects.requireNonNull(value);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            return cast(segment.put(key, value, true));
+        }
+    }
+
+    @Override
+    public V computeIfAbsent(@NotNull UUID key, @NotNull Function<? super UUID, ? extends V> mappingFunction) {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Object current = segment.get(key);
+            if (current != null) {
+                return cast(current);
+            }
+
+            value = mappingFunction.apply(key);
+            if (value != null) {
+                segment.put(key, value, false);
+            }
+            return value;
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        if (!(key instanceof UUID id)) {
+            return null;
+        }
+
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            return cast(segment.remove(id, null));
+        }
+    }
+
+    @Override
+    public boolean remove(@NotNull Object key, Object value) {
+        if (!(key instanceof UUID id) || value == null) {
+            return false;
+        }
+
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            return segment.remove(id, value) != null;
+        }
+    }
+
+    @Override
+    public boolean replace(@NotNull UUID key, @NotNull V oldValue, @NotNull V newValue) {
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            Object current = segment.get(key);
+            if (current == null || !current.equals(oldValue)) {
+                return false;
+            }
+
+            segment.put(key, newValue, false);
+            return true;
+        }
+    }
+
+    @Override
+    public V replace(@NotNull UUID key, @NotNull V value) {
+        Objects.requireNonNull(value);
+        Segment segment = segmentFor(key);
+        synchronized (segment) {
+            if (segment.get(key) == null) {
+                return null;
+            }
+            return cast(segment.put(key, value, false));
+        }
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Segment segment : segments) {
+            if (segment.size != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<UUID, V>> entrySet() {
+        Set<Entry<UUID, V>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+            this.entrySet = entrySet;
+        }
+        return entrySet;
+    }
+
+    private Segment segmentFor(UUID key) {
+        return segmentFor(hash(key.getMostSignificantBits(), key.getLeastSignificantBits()));
+    }
+
+    private Segment segmentFor(int hash) {
+        // The high bits pick the segment, the low bits the slot
+        return segments[hash >>> SEGMENT_SHIFT];
+    }
+
+    private static int hash(long msb, long lsb) {
+        // Random UUIDs are already well distributed, the mix guards against crafted or sequential ones
+        long h = msb ^ Long.rotateLeft(lsb, 32);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    private static int capacityFor(int size) {
+        // At most half full, linear probing degrades quickly beyond that
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, size * 4 - 1)) << 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V cast(Object value) {
+        return (V) value;
+    }
+
+    /**
+     * The arrays of a segment. Replaced as a whole when the segment is rehashed.
+     */
+    private static final class Table {
+
+        // The most and least significant bits of the key in slot i are at 2i and 2i + 1, sharing a cache line
+        private final long[] keys;
+        // null for a slot that was never used, TOMBSTONE for a removed entry
+        private final Object[] values;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity * 2];
+            this.values = new Object[capacity];
+        }
+
+        /**
+         * Finds the slot of a key.
+         *
+         * @return The index of the slot, or {@code -1} if the key has no slot.
+         */
+        private int find(long msb, long lsb) {
+            int mask = values.length - 1;
+            for (int i = hash(msb, lsb) & mask; ; i = (i + 1) & mask) {
+                if (values[i] == null) {
+                    return -1;
+                }
+
+                if (keys[i << 1] == msb && keys[(i << 1) + 1] == lsb) {
+                    return i;
+                }
+            }
+        }
+
+        /**
+         * Claims a free slot for a key that has none, the value must be published by the caller.
+         *
+         * @return The index of the slot.
+         */
+        private int claim(long msb, long lsb) {
+            int mask = values.length - 1;
+            int i = hash(msb, lsb) & mask;
+            while (values[i] != null) {
+                i = (i + 1) & mask;
+            }
+
+            keys[i << 1] = msb;
+            keys[(i << 1) + 1] = lsb;
+            return i;
+        }
+
+    }
+
+    /**
+     * A part of the map with its own lock. Its table is in {@link #tables} and only changed while holding the segment.
+     */
+    private static final class Segment {
+
+        private final Table[] tables;
+        private final int index;
+        // Slots in use, including tombstones
+        private int used;
+        private volatile int size;
+
+        private Segment(Table[] tables, int index) {
+            this.tables = tables;
+            this.index = index;
+        }
+
+        private Table table() {
+            return tables[index];
+        }
+
+        private Object get(UUID key) {
+            Table table = table();
+            int slot = table.find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+            if (slot < 0 || table.values[slot] == TOMBSTONE) {
+                return null;
+            }
+            return table.values[slot];
+        }
+
+        private Object put(UUID key, Object value, boolean onlyIfAbsent) {
+            long msb = key.getMostSignificantBits();
+            long lsb = key.getLeastSignificantBits();
+            Table table = table();
+            int slot = table.find(msb, lsb);
+            if (slot >= 0) {
+                Object previous = table.values[slot];
+                if (previous == TOMBSTONE) {
+                    size++;
+                    previous = null;
+                } else if (onlyIfAbsent) {
+                    return previous;
+                }
+
+                VALUES.setRelease(table.values, slot, value);
+                return previous;
+            }
+
+            if ((used + 1) * 2 > table.values.length) {
+                table = rehash(size + 1);
+            }
+
+            // The key is written before the value is published, a reader seeing the value sees the key
+            slot = table.claim(msb, lsb);
+            VALUES.setRelease(table.values, slot, value);
+            used++;
+            size++;
+            return null;
+        }
+
+        private Object remove(UUID key, Object expected) {
+            Table table = table();
+            int slot = table.find(key.getMostSignificantBits(), key.getLeastSignificantBits());
+            if (slot < 0) {
+                return null;
+            }
+
+            Object previous = table.values[slot];
+            if (previous == TOMBSTONE || (expected != null && !previous.equals(expected))) {
+                return null;
+            }
+
+            VALUES.setRelease(table.values, slot, TOMBSTONE);
+            size--;
+            return previous;
+        }
+
+        private void clear() {
+            TABLES.setRelease(tables, index, new Table(MIN_CAPACITY));
+            used = 0;
+            size = 0;
+        }
+
+        /**
+         * Moves the live entries into a new table sized for them, dropping tombstones.
+         * Readers still probing the old table see it as it was, which it remains.
+         *
+         * @return The new table.
+         */
+        private Table rehash(int size) {
+            Table old = table();
+            Table table = new Table(capacityFor(size));
+            for (int j = 0; j < old.values.length; j++) {
+                Object value = old.values[j];
+                if (value != null && value != TOMBSTONE) {
+                    table.values[table.claim(old.keys[j << 1], old.keys[(j << 1) + 1])] = value;
+                }
+            }
+
+            this.used = this.size;
+            TABLES.setRelease(tables, index, table);
+            return table;
+        }
+
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<UUID, V>> {
+
+        @NotNull
+        @Override
+        public Iterator<Entry<UUID, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return UuidMap.this.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Entry<?, ?> entry && entry.getValue() != null && entry.getValue().equals(get(entry.getKey()));
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof Entry<?, ?> entry && entry.getKey() != null && UuidMap.this.remove(entry.getKey(), entry.getValue());
+        }
+
+        @Override
+        public void clear() {
+            UuidMap.this.clear();
+        }
+
+    }
+
+    /**
+     * Iterates over the table each segment has when the iterator reaches it.
+     */
+    private final class EntryIterator implements Iterator<Entry<UUID, V>> {
+
+        private int segment = -1;
+        private Table table;
+        private int index;
+        private Entry<UUID, V> next;
+        private Entry<UUID, V> last;
+
+        private EntryIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<UUID, V> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+
+            last = next;
+            advance();
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+
+            UuidMap.this.remove(last.getKey(), last.getValue());
+            last = null;
+        }
+
+        private void advance() {
+            next = null;
+            while (true) {
+                if (table == null || index >= table.values.length) {
+                    if (++segment >= SEGMENTS) {
+                        return;
+                    }
+                    table = (Table) TABLES.getAcquire(tables, segment);
+                    index = 0;
+                }
+
+                while (index < table.values.length) {
+                    int i = index++;
+                    Object value = VALUES.getAcquire(table.values, i);
+                    if (value != null && value != TOMBSTONE) {
+                        next = new SimpleImmutableEntry<>(new UUID(table.keys[i << 1], table.keys[(i << 1) + 1]), cast(value));
+                        return;
+                    }
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package tsp.hexcore.input;
+
+import org.junit.jupiter.api.Test;
+import tsp.hexcore.input.parser.ArgumentSignature;
+import tsp.hexcore.input.parser.Arguments;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.registry.InputRegistry;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheSilentPro (Silent)
+ */
+class ArgumentSignatureTest {
+
+    private final InputParserRegistry parserRegistry = InputParserRegistry.newRegistry().registerDefaults();
+
+    @Test
+    void testParseArguments() {
+        ArgumentSignature signature = parserRegistry.signature(Integer.class, Duration.class);
+
+        Optional<Arguments> result = signature.parse("  5   1h 30m ");
+
+        assertTrue(result.isPresent());
+        assertEquals(2, result.get().size());
+        assertEquals(5, result.get().get(0, Integer.class));
+        assertEquals(Duration.ofMinutes(90), result.get().get(1, Duration.class));
+    }
+
+    @Test
+    void testLastArgumentTakesRest() {
+        ArgumentSignature signature = parserRegistry.signature(Boolean.class, String.class);
+
+        Optional<Arguments> result = signature.parse("yes hello there");
+
+        assertTrue(result.isPresent());
+        assertEquals(Boolean.TRUE, result.get().get(0));
+        assertEquals("hello there", result.get().get(1));
+    }
+
+    @Test
+    void testParseMismatch() {
+        ArgumentSignature signature = parserRegistry.signature(Integer.class, Integer.class);
+
+        assertFalse(signature.parse("5").isPresent());
+        assertFalse(signature.parse("5 abc").isPresent());
+        assertFalse(signature.parse("").isPresent());
+    }
+
+    @Test
+    void testSignatureIsCached() {
+        assertSame(parserRegistry.signature(Integer.class, String.class), parserRegistry.signature(Integer.class, String.class));
+    }
+
+    @Test
+    void testMissingParser() {
+        assertThrows(IllegalArgumentException.class, () -> parserRegistry.signature(Thread.class));
+        assertThrows(IllegalArgumentException.class, () -> parserRegistry.signature());
+    }
+
+    @Test
+    void testAwaitArguments() {
+        InputRegistry registry = InputRegistry.newRegistry(parserRegistry);
+        UUID id = UUID.randomUUID();
+        AtomicReference<Arguments> handled = new AtomicReference<>();
+        AtomicReference<String> mismatch = new AtomicReference<>();
+
+        Input.await(id, parserRegistry.signature(Integer.class, String.class))
+                .then(handled::set)
+                .mismatch(mismatch::set)
+                .register(registry);
+        registry.process(id, "abc def");
+        assertEquals("abc def", mismatch.get());
+
+        Input.await(id, parserRegistry.signature(Integer.class, String.class))
+                .then(handled::set)
+                .register(registry);
+        registry.process(id, "3 diamonds");
+        assertEquals(3, handled.get().get(0, Integer.class));
+        assertEquals("diamonds", handled.get().get(1, String.class));
+    }
+
+}
@@ -50,4 +50,19 @@ class DurationParserTest {
         assertNotNull(DurationParser.parseSafely(null));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testParseUnitsIgnoreCase() {
+        assertEquals(Duration.ofDays(2).plusHours(3), DurationParser.parse("2D 3Hours"));
+        assertEquals(Duration.ofDays(7), DurationParser.parse("1 WEEK"));
+        assertEquals(Duration.ofMillis(1500), DurationParser.parse("1500millis"));
+        assertEquals(Duration.ofSeconds(3_000_000_000L), DurationParser.parse("3000000000s"));
+    }
+
+    @Test
+    void testParseOverflow() {
+        assertNull(DurationParser.parse("99999999999999999999s"));
+        assertNull(DurationParser.parse("2 forever"));
+        assertFalse(DurationParser.parseSafely("99999999999999999999s").isPresent());
+    }
+
+}
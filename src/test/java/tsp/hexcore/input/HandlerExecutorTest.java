@@ -0,0 +1,255 @@
+package tsp.hexcore.input;
+
+import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.junit.jupiter.api.Test;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.registry.HandlerExecutor;
+import tsp.hexcore.input.registry.InputRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheSilentPro (Silent)
+ */
+class HandlerExecutorTest {
+
+    private final InputParserRegistry parserRegistry = InputParserRegistry.newRegistry().registerDefaults();
+
+    @Test
+    void testHandlersRunOnTick() throws InterruptedException {
+        InputRegistry registry = InputRegistry.builder(parserRegistry)
+                .executor(HandlerExecutor.tick(Duration.ofMillis(10)))
+                .build();
+        UUID id = UUID.randomUUID();
+        List<Object> handled = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        Input.await(id, Integer.class)
+                .then(i -> {
+                    handled.add(i);
+                    threads.add(Thread.currentThread());
+                })
+                .mismatch(handled::add)
+                .register(registry);
+        Input.await(id, Integer.class)
+                .then(i -> {
+                    handled.add(i);
+                })
+                .mismatch(handled::add)
+                .register(registry);
+
+        Thread chat = new Thread(() -> {
+            registry.process(id, "5");
+            registry.process(id, "five");
+        });
+        chat.start();
+        chat.join();
+        assertTrue(handled.isEmpty());
+
+        registry.tick();
+        assertEquals(List.of(5, "five"), handled);
+        assertEquals(List.of(Thread.currentThread()), threads);
+    }
+
+    @Test
+    void testEventHandlerRunsInline() {
+        InputRegistry registry = InputRegistry.builder(parserRegistry)
+                .executor(HandlerExecutor.tick(Duration.ofMillis(10)))
+                .build();
+        UUID id = UUID.randomUUID();
+        List<Integer> handled = new ArrayList<>();
+        Input.await(id, Integer.class)
+                .then(i -> {
+                    handled.add(i);
+                })
+                .then((i, event) -> event.setCancelled(true))
+                .register(registry);
+
+        AsyncPlayerChatEvent event = new AsyncPlayerChatEvent(true, null, "5", Set.of());
+        registry.process(id, event.getMessage(), event);
+        // Cancelled while dispatched, the other handler waits for the tick
+        assertTrue(event.isCancelled());
+        assertTrue(handled.isEmpty());
+
+        registry.tick();
+        assertEquals(List.of(5), handled);
+    }
+
+    @Test
+    void testRejectedLaneRunsInline() {
+        InputRegistry registry = InputRegistry.builder(parserRegistry)
+                .executor(HandlerExecutor.serialized(command -> {
+                    throw new RejectedExecutionException();
+                }))
+                .build();
+        UUID id = UUID.randomUUID();
+        List<Integer> handled = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Input.await(id, Integer.class).then(value -> {
+                handled.add(value);
+            }).register(registry);
+        }
+
+        registry.process(id, "1");
+        registry.process(id, "2");
+        assertEquals(List.of(1, 2), handled);
+    }
+
+    @Test
+    void testLaneSurvivesError() throws InterruptedException {
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor(command -> {
+            Thread thread = new Thread(command);
+            thread.setUncaughtExceptionHandler((t, e) -> failures.add(e));
+            return thread;
+        });
+        InputRegistry registry = InputRegistry.builder(parserRegistry)
+                .executor(HandlerExecutor.serialized(executor))
+                .build();
+        UUID id = UUID.randomUUID();
+        CountDownLatch handled = new CountDownLatch(1);
+        Input.await(id, String.class).then(s -> {
+            throw new Error("Handler failure");
+        }).register(registry);
+        Input.await(id, String.class).then(s -> handled.countDown()).register(registry);
+
+        registry.process(id, "first");
+        registry.process(id, "second");
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        assertEquals(1, failures.size());
+        assertEquals("Handler failure", failures.get(0).getMessage());
+        executor.shutdown();
+    }
+
+    @Test
+    void testBudgetCarriesOver() {
+        InputRegistry registry = InputRegistry.builder(parserRegistry)
+                .executor(HandlerExecutor.tick(Duration.ofNanos(1)))
+                .build();
+        AtomicInteger handled = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            UUID id = UUID.randomUUID();
+            Input.await(id, String.class).then(s -> handled.incrementAndGet()).register(registry);
+            registry.process(id, "message");
+        }
+
+        registry.tick();
+        assertEquals(1, handled.get());
+        registry.tick();
+        registry.tick();
+        assertEquals(3, handled.get());
+        registry.tick();
+        assertEquals(3, handled.get());
+    }
+
+    @Test
+    void testFailingHandlerDoesNotBlockQueue() {
+        InputRegistry registry = InputRegistry.builder(parserRegistry)
+                .executor(HandlerExecutor.tick(Duration.ofSeconds(1)))
+                .build();
+        AtomicInteger handled = new AtomicInteger();
+
+        UUID first = UUID.randomUUID();
+        Input.await(first, String.class).then(s -> {
+            throw new IllegalStateException("Handler failure");
+        }).register(registry);
+        UUID second = UUID.randomUUID();
+        Input.await(second, String.class).then(s -> handled.incrementAndGet()).register(registry);
+        registry.process(first, "message");
+        registry.process(second, "message");
+
+        assertThrows(IllegalStateException.class, registry::tick);
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void testVirtualThreadPerHandler() throws InterruptedException {
+        InputRegistry registry = InputRegistry.builder(parserRegistry)
+                .executor(HandlerExecutor.virtualThreads())
+                .build();
+        UUID id = UUID.randomUUID();
+        CountDownLatch second = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        // The first handler waits for the second one of the same player, which only a thread of its own can run
+        Input.await(id, String.class).then(s -> {
+            try {
+                if (second.await(5, TimeUnit.SECONDS)) {
+                    done.countDown();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }).register(registry);
+        Input.await(id, String.class).then(s -> second.countDown()).register(registry);
+
+        registry.process(id, "first");
+        registry.process(id, "second");
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testSerializedVirtualThreadsKeepOrderPerPlayer() throws InterruptedException {
+        InputRegistry registry = InputRegistry.builder(parserRegistry)
+                .executor(HandlerExecutor.serializedVirtualThreads())
+                .build();
+        int players = 50;
+        int messages = 100;
+        Map<UUID, List<Integer>> handled = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(players * messages);
+        CountDownLatch blocked = new CountDownLatch(1);
+
+        UUID[] ids = new UUID[players];
+        for (int p = 0; p < players; p++) {
+            ids[p] = UUID.randomUUID();
+            List<Integer> received = new ArrayList<>();
+            handled.put(ids[p], received);
+            for (int m = 0; m < messages; m++) {
+                Input.await(ids[p], Integer.class).then(i -> {
+                    if (i == 0) {
+                        // Blocking handlers do not hold up processing
+                        try {
+                            blocked.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    received.add(i);
+                    done.countDown();
+                }).register(registry);
+            }
+        }
+
+        for (int m = 0; m < messages; m++) {
+            for (UUID id : ids) {
+                registry.process(id, String.valueOf(m));
+            }
+        }
+        blocked.countDown();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (List<Integer> received : handled.values()) {
+            for (int m = 0; m < messages; m++) {
+                assertEquals(m, received.get(m));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,67 @@
+package tsp.hexcore.input;
+
+import org.junit.jupiter.api.Test;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.registry.InputRegistry;
+
+import java.lang.management.ManagementFactory;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheSilentPro (Silent)
+ */
+class InputAllocationTest {
+
+    private static final Optional<Answer> ANSWER = Optional.of(new Answer());
+
+    @Test
+    void testProcessDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        InputParserRegistry parsers = InputParserRegistry.newRegistry();
+        // The parser returns a shared result, so any allocation would come from the registry
+        parsers.register(Answer.class, s -> ANSWER);
+        InputRegistry registry = InputRegistry.newRegistry(parsers);
+
+        int count = 10_000;
+        int[] handled = new int[1];
+        UUID[] ids = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+
+        // Kept short, so escape analysis of the JIT does not hide allocations
+        for (int round = 0; round < 2; round++) {
+            register(registry, ids, handled);
+            process(registry, ids);
+        }
+
+        register(registry, ids, handled);
+        long thread = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(thread);
+        process(registry, ids);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertEquals(3 * count, handled[0]);
+        assertTrue(allocated < count, "Allocated " + allocated + " bytes for " + count + " messages");
+    }
+
+    private static void register(InputRegistry registry, UUID[] ids, int[] handled) {
+        for (UUID id : ids) {
+            Input.await(id, Answer.class).then(answer -> {
+                handled[0]++;
+            }).register(registry);
+        }
+    }
+
+    private static void process(InputRegistry registry, UUID[] ids) {
+        for (UUID id : ids) {
+            registry.process(id, "answer");
+        }
+    }
+
+    private static final class Answer {}
+
+}
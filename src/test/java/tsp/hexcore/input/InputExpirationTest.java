@@ -0,0 +1,123 @@
+package tsp.hexcore.input;
+
+import org.junit.jupiter.api.Test;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.registry.InputRegistry;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheSilentPro (Silent)
+ */
+class InputExpirationTest {
+
+    @Test
+    void testExpiresWithoutMessage() throws InterruptedException {
+        InputRegistry registry = InputRegistry.builder(InputParserRegistry.newRegistry().registerDefaults())
+                .expiration(Duration.ofMillis(5))
+                .build();
+        UUID id = UUID.randomUUID();
+        AtomicInteger expired = new AtomicInteger();
+        AtomicInteger handled = new AtomicInteger();
+
+        Input.await(id, String.class)
+                .until(Duration.ofMillis(20))
+                .then(s -> handled.incrementAndGet())
+                .expired(s -> {
+                    assertNull(s);
+                    expired.incrementAndGet();
+                })
+                .register(registry);
+
+        registry.tick();
+        assertEquals(0, expired.get());
+
+        Thread.sleep(60);
+        registry.tick();
+        assertEquals(1, expired.get());
+
+        // The input is gone, so a late message reaches nothing
+        registry.process(id, "late");
+        assertEquals(0, handled.get());
+        assertEquals(1, expired.get());
+    }
+
+    @Test
+    void testConsumedInputDoesNotExpire() throws InterruptedException {
+        InputRegistry registry = InputRegistry.builder(InputParserRegistry.newRegistry().registerDefaults())
+                .expiration(Duration.ofMillis(5))
+                .build();
+        UUID id = UUID.randomUUID();
+        AtomicInteger expired = new AtomicInteger();
+        AtomicInteger handled = new AtomicInteger();
+
+        Input.await(id, String.class)
+                .until(Duration.ofMillis(20))
+                .then(s -> handled.incrementAndGet())
+                .expired(s -> expired.incrementAndGet())
+                .register(registry);
+
+        registry.process(id, "answer");
+        Thread.sleep(60);
+        registry.tick();
+
+        assertEquals(1, handled.get());
+        assertEquals(0, expired.get());
+    }
+
+    @Test
+    void testDurationSetAfterRegistration() throws InterruptedException {
+        InputRegistry registry = InputRegistry.builder(InputParserRegistry.newRegistry().registerDefaults())
+                .expiration(Duration.ofMillis(5))
+                .build();
+        AtomicInteger expired = new AtomicInteger();
+
+        Input.await(UUID.randomUUID(), String.class)
+                .register(registry)
+                .until(Duration.ofMillis(20))
+                .expired(s -> expired.incrementAndGet());
+
+        Thread.sleep(60);
+        registry.tick();
+        assertEquals(1, expired.get());
+    }
+
+    @Test
+    void testManyDeadlinesNeverFireEarly() throws InterruptedException {
+        InputRegistry registry = InputRegistry.builder(InputParserRegistry.newRegistry().registerDefaults())
+                .expiration(Duration.ofMillis(1))
+                .build();
+        int count = 10_000;
+        AtomicInteger expired = new AtomicInteger();
+        AtomicLong early = new AtomicLong();
+
+        for (int i = 0; i < count; i++) {
+            long duration = (i % 300) + 1;
+            long deadline = System.nanoTime() + Duration.ofMillis(duration).toNanos();
+            Input.await(UUID.randomUUID(), String.class)
+                    .until(Duration.ofMillis(duration))
+                    .expired(s -> {
+                        if (System.nanoTime() < deadline) {
+                            early.incrementAndGet();
+                        }
+                        expired.incrementAndGet();
+                    })
+                    .register(registry);
+        }
+
+        long end = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (expired.get() < count && System.nanoTime() < end) {
+            registry.tick();
+            Thread.sleep(1);
+        }
+
+        assertEquals(count, expired.get());
+        assertEquals(0, early.get());
+    }
+
+}
@@ -0,0 +1,137 @@
+package tsp.hexcore.input;
+
+import org.junit.jupiter.api.Test;
+import tsp.hexcore.input.flow.FlowContext;
+import tsp.hexcore.input.flow.InputFlow;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.registry.InputRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheSilentPro (Silent)
+ */
+class InputFlowTest {
+
+    private final InputParserRegistry parserRegistry = InputParserRegistry.newRegistry().registerDefaults();
+
+    @Test
+    void testSteps() {
+        InputRegistry registry = InputRegistry.newRegistry(parserRegistry);
+        UUID id = UUID.randomUUID();
+        List<String> prompts = new ArrayList<>();
+        AtomicReference<FlowContext> completed = new AtomicReference<>();
+
+        InputFlow flow = InputFlow.builder()
+                .step("amount", Integer.class).prompt(ctx -> prompts.add("amount"))
+                .step("duration", Duration.class).prompt(ctx -> prompts.add("duration"))
+                .then(completed::set)
+                .build(parserRegistry);
+        flow.start(id, registry);
+        assertEquals(List.of("amount"), prompts);
+
+        registry.process(id, "5");
+        assertEquals(List.of("amount", "duration"), prompts);
+        assertNull(completed.get());
+
+        registry.process(id, "1h");
+        assertNotNull(completed.get());
+        assertEquals(5, completed.get().get("amount", Integer.class));
+        assertEquals(Duration.ofHours(1), completed.get().get("duration"));
+    }
+
+    @Test
+    void testBranch() {
+        InputRegistry registry = InputRegistry.newRegistry(parserRegistry);
+        UUID id = UUID.randomUUID();
+        AtomicReference<FlowContext> completed = new AtomicReference<>();
+
+        InputFlow flow = InputFlow.builder()
+                .step("amount", Integer.class).next(ctx -> ctx.get("amount", Integer.class) > 10 ? "confirm" : null)
+                .step("confirm", Boolean.class)
+                .then(completed::set)
+                .build(parserRegistry);
+
+        flow.start(id, registry);
+        registry.process(id, "3");
+        assertNotNull(completed.get());
+        assertFalse(completed.get().has("confirm"));
+
+        completed.set(null);
+        flow.start(id, registry);
+        registry.process(id, "30");
+        assertNull(completed.get());
+        registry.process(id, "yes");
+        assertEquals(Boolean.TRUE, completed.get().get("confirm"));
+    }
+
+    @Test
+    void testRetries() {
+        InputRegistry registry = InputRegistry.newRegistry(parserRegistry);
+        UUID id = UUID.randomUUID();
+        List<String> mismatches = new ArrayList<>();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger handled = new AtomicInteger();
+
+        InputFlow.builder()
+                .step("amount", Integer.class).retries(1).mismatch((ctx, s) -> mismatches.add(s))
+                .failed(ctx -> failed.incrementAndGet())
+                .build(parserRegistry)
+                .start(id, registry);
+        Input.await(id, String.class).then(s -> handled.incrementAndGet()).register(registry);
+
+        registry.process(id, "one");
+        assertEquals(List.of("one"), mismatches);
+        registry.process(id, "two");
+        assertEquals(List.of("one"), mismatches);
+        assertEquals(1, failed.get());
+
+        // The flow is over, messages reach awaited inputs again
+        registry.process(id, "three");
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void testStepTimeout() throws InterruptedException {
+        InputRegistry registry = InputRegistry.builder(parserRegistry)
+                .expiration(Duration.ofMillis(5))
+                .build();
+        UUID id = UUID.randomUUID();
+        AtomicReference<FlowContext> expired = new AtomicReference<>();
+
+        InputFlow.builder()
+                .step("name", String.class)
+                .step("amount", Integer.class).timeout(Duration.ofMillis(20))
+                .expired(expired::set)
+                .build(parserRegistry)
+                .start(id, registry);
+
+        Thread.sleep(40);
+        registry.tick();
+        // The timeout counts from when the step is entered
+        assertNull(expired.get());
+
+        registry.process(id, "Steve");
+        Thread.sleep(60);
+        registry.tick();
+        assertNotNull(expired.get());
+        assertEquals("Steve", expired.get().get("name"));
+        assertEquals("amount", expired.get().getStep().getName());
+    }
+
+    @Test
+    void testInvalidFlow() {
+        assertThrows(IllegalArgumentException.class, () -> InputFlow.builder().build(parserRegistry));
+        assertThrows(IllegalArgumentException.class, () -> InputFlow.builder().step("a", Thread.class).build(parserRegistry));
+        assertThrows(IllegalArgumentException.class, () -> InputFlow.builder().step("a", String.class).next("b").build(parserRegistry));
+        assertThrows(IllegalArgumentException.class, () -> InputFlow.builder().step("a", String.class).step("a", String.class));
+    }
+
+}
@@ -0,0 +1,133 @@
+package tsp.hexcore.input;
+
+import org.junit.jupiter.api.Test;
+import tsp.hexcore.input.flow.InputFlow;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.registry.HandlerExecutor;
+import tsp.hexcore.input.registry.InputRegistry;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheSilentPro (Silent)
+ */
+class InputFutureTest {
+
+    private final InputParserRegistry parserRegistry = InputParserRegistry.newRegistry().registerDefaults();
+
+    @Test
+    void testCompletesWithValue() {
+        InputRegistry registry = InputRegistry.newRegistry(parserRegistry);
+        UUID id = UUID.randomUUID();
+
+        CompletableFuture<Integer> future = Input.await(id, Integer.class).submit(registry);
+        assertFalse(future.isDone());
+
+        registry.process(id, "42");
+        assertEquals(42, future.join());
+    }
+
+    @Test
+    void testCompletesExceptionally() {
+        InputRegistry registry = InputRegistry.newRegistry(parserRegistry);
+        UUID id = UUID.randomUUID();
+        AtomicInteger mismatches = new AtomicInteger();
+
+        CompletableFuture<Integer> future = Input.await(id, Integer.class)
+                .mismatch(s -> mismatches.incrementAndGet())
+                .submit(registry);
+        registry.process(id, "abc");
+
+        assertEquals(1, mismatches.get());
+        InputException exception = assertThrows(InputException.class, () -> unwrap(future));
+        assertEquals(InputOutcome.MISMATCH, exception.getOutcome());
+        assertEquals("abc", exception.getInput());
+    }
+
+    @Test
+    void testRequestedAfterProcess() {
+        InputRegistry registry = InputRegistry.newRegistry(parserRegistry);
+        UUID id = UUID.randomUUID();
+
+        Input<Integer> answered = Input.await(id, Integer.class).register(registry);
+        registry.process(id, "42");
+        assertEquals(42, answered.future().getNow(null));
+
+        Input<Integer> mismatched = Input.await(id, Integer.class).register(registry);
+        registry.process(id, "abc");
+        InputException exception = assertThrows(InputException.class, () -> unwrap(mismatched.future()));
+        assertEquals(InputOutcome.MISMATCH, exception.getOutcome());
+        assertEquals("abc", exception.getInput());
+    }
+
+    @Test
+    void testCompletesOnExpiry() throws InterruptedException {
+        InputRegistry registry = InputRegistry.builder(parserRegistry)
+                .expiration(Duration.ofMillis(5))
+                .build();
+
+        CompletableFuture<String> future = Input.await(UUID.randomUUID(), String.class)
+                .until(Duration.ofMillis(10))
+                .submit(registry);
+        Thread.sleep(40);
+        registry.tick();
+
+        InputException exception = assertThrows(InputException.class, () -> unwrap(future));
+        assertEquals(InputOutcome.EXPIRED, exception.getOutcome());
+        assertNull(exception.getInput());
+    }
+
+    @Test
+    void testCancel() {
+        InputRegistry registry = InputRegistry.newRegistry(parserRegistry);
+        UUID id = UUID.randomUUID();
+        AtomicInteger completed = new AtomicInteger();
+
+        CompletableFuture<String> first = Input.await(id, String.class).submit(registry);
+        CompletableFuture<String> second = Input.await(id, String.class).submit(registry);
+        InputFlow.builder().step("name", String.class).then(ctx -> completed.incrementAndGet()).build(parserRegistry).start(id, registry);
+
+        assertEquals(3, registry.cancel(id));
+        assertEquals(InputOutcome.CANCELLED, assertThrows(InputException.class, () -> unwrap(first)).getOutcome());
+        assertEquals(InputOutcome.CANCELLED, assertThrows(InputException.class, () -> unwrap(second)).getOutcome());
+
+        registry.process(id, "late");
+        assertEquals(0, completed.get());
+        assertEquals(0, registry.cancel(id));
+    }
+
+    @Test
+    void testBlockOnVirtualThread() throws Exception {
+        InputRegistry registry = InputRegistry.builder(parserRegistry)
+                .executor(HandlerExecutor.virtualThreads())
+                .build();
+        UUID id = UUID.randomUUID();
+
+        CompletableFuture<Integer> answer = new CompletableFuture<>();
+        Thread.ofVirtual().start(() -> answer.complete(Input.await(id, Integer.class).submit(registry).join() * 2));
+        // Answer until the virtual thread has registered its input
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!answer.isDone() && System.nanoTime() < end) {
+            registry.process(id, "21");
+            Thread.sleep(1);
+        }
+
+        assertEquals(42, answer.get(5, TimeUnit.SECONDS));
+    }
+
+    private static <T> T unwrap(CompletableFuture<T> future) throws Throwable {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package tsp.hexcore.input;
+
+import org.junit.jupiter.api.Test;
+import tsp.hexcore.input.metrics.Histogram;
+import tsp.hexcore.input.metrics.InputMetrics;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.registry.InputRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheSilentPro (Silent)
+ */
+class InputMetricsTest {
+
+    @Test
+    void testHistogram() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getPercentile(50));
+
+        for (long i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertEquals(500_500, histogram.getMean(), 0.001);
+        assertEquals(1_000_000, histogram.getPercentile(100));
+        // Within the 25% bucket error, never below the true value
+        long median = histogram.getPercentile(50);
+        assertTrue(median >= 500_000 && median <= 625_000, "Median: " + median);
+        long p99 = histogram.getPercentile(99);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99: " + p99);
+    }
+
+    @Test
+    void testRecordsOutcomes() {
+        InputRegistry registry = InputRegistry.builder(InputParserRegistry.newRegistry().registerDefaults())
+                .metrics(InputMetrics.recording())
+                .build();
+        InputMetrics metrics = registry.getMetrics();
+        UUID id = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+
+        Input.await(id, Integer.class).register(registry);
+        Input.await(id, Integer.class).register(registry);
+        Input.await(id, String.class).until(Duration.ofSeconds(1)).timestamp(Instant.now().minusSeconds(5)).register(registry);
+        Input.await(other, Integer.class).register(registry);
+        assertEquals(4, metrics.getPending());
+        assertEquals(Map.of(Integer.class, 3L, String.class, 1L), metrics.getPendingByType());
+
+        registry.process(id, "42");
+        registry.process(id, "abc");
+        registry.process(id, "late");
+        registry.cancel(other);
+
+        assertEquals(0, metrics.getPending());
+        assertEquals(1, metrics.getAnswered());
+        assertEquals(1, metrics.getRejected(InputOutcome.MISMATCH));
+        assertEquals(1, metrics.getRejected(InputOutcome.EXPIRED));
+        assertEquals(1, metrics.getRejected(InputOutcome.CANCELLED));
+        assertEquals(1, metrics.getAnswerTime().getCount());
+        assertEquals(1, metrics.getHandlerTime().getCount());
+        assertEquals(2, metrics.getParseTimes().get(Integer.class).getCount());
+        assertEquals(1, metrics.getParseTimes().get(String.class).getCount());
+    }
+
+    @Test
+    void testDisabledByDefault() {
+        InputRegistry registry = InputRegistry.newRegistry(InputParserRegistry.newRegistry().registerDefaults());
+        UUID id = UUID.randomUUID();
+
+        Input.await(id, String.class).register(registry);
+        assertSame(InputMetrics.disabled(), registry.getMetrics());
+        assertEquals(0, registry.getMetrics().getPending());
+    }
+
+}
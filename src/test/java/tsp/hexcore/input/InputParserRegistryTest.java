@@ -6,6 +6,7 @@ import tsp.hexcore.input.parser.InputParserRegistry;
 
 import java.util.Optional;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -58,4 +59,134 @@ class InputParserRegistryTest {
         verify(registry).update(Integer.class, parser);
     }
 
-}
\ No newline at end of file
+    @Test
+    void testFindEnum() {
+        InputParserRegistry registry = InputParserRegistry.newRegistry();
+
+        Optional<InputParser<TimeUnit>> result = registry.find(TimeUnit.class);
+
+        assertTrue(result.isPresent());
+        assertEquals(Optional.of(TimeUnit.SECONDS), result.get().parse("seconds"));
+        assertEquals(Optional.of(TimeUnit.DAYS), result.get().parse("DAYS"));
+        assertFalse(result.get().parse("weeks").isPresent());
+    }
+
+    @Test
+    void testFindSupertype() {
+        InputParserRegistry registry = InputParserRegistry.newRegistry();
+        registry.register(Animal.class, s -> Optional.of(s.equals("woof") ? new Dog() : new Cat()));
+
+        Optional<InputParser<Dog>> dog = registry.find(Dog.class);
+        Optional<InputParser<Cat>> cat = registry.find(Cat.class);
+
+        assertTrue(dog.isPresent());
+        assertTrue(dog.get().parse("woof").isPresent());
+        assertFalse(dog.get().parse("meow").isPresent());
+        assertTrue(cat.isPresent());
+        assertTrue(cat.get().parse("meow").isPresent());
+        assertEquals(1, registry.findAll(Dog.class).size());
+    }
+
+    @Test
+    void testFindNumberSupertype() {
+        InputParserRegistry registry = InputParserRegistry.newRegistry();
+        // Like a parser of numbers, producing longs and doubles
+        registry.register(Number.class, s -> Optional.of(s.contains(".") ? (Number) Double.parseDouble(s) : (Number) Long.parseLong(s)));
+
+        InputParser<Integer> integers = registry.find(Integer.class).orElseThrow();
+        assertEquals(Optional.of(42), integers.parse("42"));
+        assertEquals(Optional.of(42), integers.parse("42.0"));
+        assertFalse(integers.parse("4.5").isPresent());
+        assertFalse(integers.parse("3000000000").isPresent());
+        assertEquals(Optional.of((byte) -128), registry.find(Byte.class).orElseThrow().parse("-128"));
+        assertFalse(registry.find(Byte.class).orElseThrow().parse("128").isPresent());
+        assertEquals(Optional.of(4.5D), registry.find(Double.class).orElseThrow().parse("4.5"));
+        assertEquals(Optional.of(7L), registry.find(Long.class).orElseThrow().parse("7"));
+    }
+
+    @Test
+    void testFindEnumSupertype() {
+        InputParserRegistry registry = InputParserRegistry.newRegistry();
+        registry.register(Sound.class, s -> Optional.of(s.equals("woof") ? Bark.LOUD : Purr.SOFT));
+
+        InputParser<Bark> bark = registry.find(Bark.class).orElseThrow();
+        assertEquals(Optional.of(Bark.LOUD), bark.parse("woof"));
+        assertFalse(bark.parse("meow").isPresent());
+        // The names of the constants still follow the parser of the interface
+        assertEquals(2, registry.findAll(Bark.class).size());
+        assertEquals(Optional.of(Bark.QUIET), registry.findChain(Bark.class).orElseThrow().parse("quiet"));
+        assertEquals(Optional.of(Purr.SOFT), registry.find(Purr.class).orElseThrow().parse("meow"));
+    }
+
+    @Test
+    void testFindAfterRegister() {
+        InputParserRegistry registry = InputParserRegistry.newRegistry();
+        assertFalse(registry.find(Dog.class).isPresent());
+
+        registry.register(Dog.class, s -> Optional.of(new Dog()));
+
+        assertTrue(registry.find(Dog.class).isPresent());
+        assertSame(registry.find(Dog.class).get(), registry.find(Dog.class).get());
+    }
+
+    @Test
+    void testReplaceParser() {
+        InputParserRegistry registry = InputParserRegistry.newRegistry();
+        InputParser<Integer> first = s -> Optional.of(1);
+        InputParser<Integer> second = s -> Optional.of(2);
+        InputParser<Integer> replacement = s -> Optional.of(3);
+        registry.register(Integer.class, first);
+        registry.register(Integer.class, second);
+
+        List<InputParser<Integer>> before = registry.findAll(Integer.class);
+        assertTrue(registry.replace(Integer.class, first, replacement));
+        assertFalse(registry.replace(Integer.class, first, replacement));
+
+        assertEquals(List.of(replacement, second), registry.findAll(Integer.class));
+        // Snapshots handed out earlier are not affected
+        assertEquals(List.of(first, second), before);
+    }
+
+    @Test
+    void testUnregisterParser() {
+        InputParserRegistry registry = InputParserRegistry.newRegistry();
+        InputParser<Integer> first = s -> Optional.of(1);
+        InputParser<Integer> second = s -> Optional.of(2);
+        registry.register(Integer.class, first);
+        registry.register(Integer.class, second);
+
+        assertTrue(registry.unregister(Integer.class, first));
+        assertFalse(registry.unregister(Integer.class, first));
+        assertEquals(Optional.of(second), registry.find(Integer.class));
+
+        assertTrue(registry.unregister(Integer.class));
+        assertFalse(registry.find(Integer.class).isPresent());
+        assertFalse(registry.unregister(Integer.class));
+    }
+
+    @Test
+    void testUpdatePrimaryParser() {
+        InputParserRegistry registry = InputParserRegistry.newRegistry();
+        InputParser<Integer> first = s -> Optional.of(1);
+        InputParser<Integer> second = s -> Optional.of(2);
+        registry.register(Integer.class, first);
+
+        registry.update(Integer.class, second);
+
+        assertEquals(Optional.of(second), registry.find(Integer.class));
+        assertEquals(List.of(second, first), registry.findAll(Integer.class));
+    }
+
+    private interface Animal {}
+
+    private static class Dog implements Animal {}
+
+    private static class Cat implements Animal {}
+
+    private interface Sound {}
+
+    private enum Bark implements Sound { LOUD, QUIET }
+
+    private enum Purr implements Sound { SOFT }
+
+}
@@ -2,8 +2,12 @@ package tsp.hexcore.input;
 
 import org.junit.jupiter.api.Test;
 import tsp.hexcore.input.parser.InputParser;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.parser.RegionParser;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,4 +37,44 @@ class InputParserTest {
 
         assertFalse(result.isPresent());
     }
+
+    @Test
+    void testParseRegionBridgesToString() {
+        InputParser<String> parser = Optional::of;
+
+        assertEquals("world", parser.parse("hello world!", 6, 11).orElseThrow());
+    }
+
+    @Test
+    void testRegionParserBridgesFromString() {
+        RegionParser<Integer> parser = (input, start, end) -> Optional.of(end - start);
+
+        assertEquals(5, parser.parse("hello").orElseThrow());
+    }
+
+    @Test
+    void testDefaultParsersParseRegions() {
+        InputParserRegistry registry = InputParserRegistry.newRegistry().registerDefaults();
+        String message = "42 yes 1h30m " + new UUID(1, 2);
+
+        assertEquals(42, registry.find(Integer.class).orElseThrow().parse(message, 0, 2).orElseThrow());
+        assertEquals(true, registry.find(Boolean.class).orElseThrow().parse(message, 3, 6).orElseThrow());
+        assertEquals(Duration.ofMinutes(90), registry.find(Duration.class).orElseThrow().parse(message, 7, 12).orElseThrow());
+        assertEquals(new UUID(1, 2), registry.find(UUID.class).orElseThrow().parse(message, 13, message.length()).orElseThrow());
+        assertEquals("yes", registry.find(String.class).orElseThrow().parse(message, 3, 6).orElseThrow());
+        assertFalse(registry.find(Integer.class).orElseThrow().parse(message, 0, 3).isPresent());
+        assertFalse(registry.find(UUID.class).orElseThrow().parse(message, 12, message.length()).isPresent());
+    }
+
+    @Test
+    void testUuidOfOtherLayout() {
+        InputParser<UUID> parser = InputParserRegistry.newRegistry().registerDefaults().find(UUID.class).orElseThrow();
+        // 36 characters, but not in the 8-4-4-4-12 layout
+        String shifted = "1234567-81234-1234-1234-123456789abc";
+
+        assertEquals(Optional.of(UUID.fromString(shifted)), parser.parse(shifted));
+        assertEquals(Optional.of(UUID.fromString("1-2-3-4-5")), parser.parse("1-2-3-4-5"));
+        assertFalse(parser.parse("1234567-81234-1234-1234-123456789abz").isPresent());
+    }
+
 }
@@ -2,9 +2,28 @@ package tsp.hexcore.input;
 
 import org.bukkit.event.player.AsyncPlayerChatEvent;
 import org.junit.jupiter.api.Test;
+import tsp.hexcore.input.parser.InputParser;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.registry.InputMapFactory;
 import tsp.hexcore.input.registry.InputRegistry;
+import tsp.hexcore.input.registry.OverflowPolicy;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,4 +63,359 @@ class InputRegistryTest {
         assertThrows(IllegalArgumentException.class, () -> registry.onInvalidParser(type));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testParserSwappedWhileWaiting() {
+        InputParserRegistry parserRegistry = InputParserRegistry.newRegistry();
+        InputParser<String> original = s -> Optional.of("original");
+        InputParser<String> swapped = s -> Optional.of("swapped");
+        parserRegistry.register(String.class, original);
+        InputRegistry registry = InputRegistry.newRegistry(parserRegistry);
+        UUID id = UUID.randomUUID();
+        AtomicReference<String> handled = new AtomicReference<>();
+
+        Input.await(id, String.class).then(handled::set).register(registry);
+        parserRegistry.replace(String.class, original, swapped);
+        registry.process(id, "message");
+
+        assertEquals("swapped", handled.get());
+    }
+
+    @Test
+    void testFallbackParsers() {
+        InputParserRegistry parserRegistry = InputParserRegistry.newRegistry().registerDefaults();
+        parserRegistry.register(Duration.class, s -> {
+            try {
+                return Optional.of(Duration.ofSeconds(LocalTime.parse(s).toSecondOfDay()));
+            } catch (DateTimeParseException e) {
+                return Optional.empty();
+            }
+        });
+        InputRegistry registry = InputRegistry.newRegistry(parserRegistry);
+        UUID id = UUID.randomUUID();
+        AtomicReference<Duration> handled = new AtomicReference<>();
+        AtomicReference<String> mismatch = new AtomicReference<>();
+
+        Input.await(id, Duration.class).then(handled::set).register(registry);
+        registry.process(id, "1h");
+        assertEquals(Duration.ofHours(1), handled.get());
+
+        Input.await(id, Duration.class).then(handled::set).register(registry);
+        registry.process(id, "01:30:00");
+        assertEquals(Duration.ofMinutes(90), handled.get());
+
+        Input.await(id, Duration.class).then(handled::set).mismatch(mismatch::set).register(registry);
+        registry.process(id, "soon");
+        assertEquals("soon", mismatch.get());
+    }
+
+    @Test
+    void testInputsAreQueuedInOrder() {
+        InputRegistry registry = InputRegistry.newRegistry(InputParserRegistry.newRegistry().registerDefaults(), ConcurrentSkipListMap::new);
+        UUID id = UUID.randomUUID();
+        List<String> handled = new ArrayList<>();
+
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 3; i++) {
+                int index = i;
+                Input.await(id, String.class).then(s -> {
+                    handled.add(index + s);
+                }).register(registry);
+            }
+
+            registry.process(id, "a");
+            registry.process(id, "b");
+            registry.process(id, "c");
+            registry.process(id, "d");
+        }
+
+        assertEquals(List.of("0a", "1b", "2c", "0a", "1b", "2c"), handled);
+    }
+
+    @Test
+    void testPerPlayerLimit() {
+        InputParserRegistry parserRegistry = InputParserRegistry.newRegistry().registerDefaults();
+        for (OverflowPolicy policy : OverflowPolicy.values()) {
+            InputRegistry registry = InputRegistry.builder(parserRegistry).perPlayerLimit(2, policy).build();
+            UUID id = UUID.randomUUID();
+            List<String> handled = new ArrayList<>();
+            List<InputOutcome> dropped = new ArrayList<>();
+
+            for (int i = 0; i < 3; i++) {
+                int index = i;
+                Input.await(id, String.class)
+                        .then(s -> {
+                            handled.add(index + s);
+                        })
+                        .cancelled(outcome -> dropped.add(outcome))
+                        .register(registry);
+            }
+
+            registry.process(id, "a");
+            registry.process(id, "b");
+            registry.process(id, "c");
+
+            assertEquals(policy == OverflowPolicy.REJECT_NEWEST ? List.of("0a", "1b") : List.of("1a", "2b"), handled);
+            assertEquals(List.of(InputOutcome.OVERFLOW), dropped);
+        }
+    }
+
+    @Test
+    void testGlobalLimit() {
+        InputRegistry registry = InputRegistry.builder(InputParserRegistry.newRegistry().registerDefaults())
+                .globalLimit(2)
+                .build();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        Input.await(first, String.class).register(registry);
+        Input.await(second, String.class).register(registry);
+        CompletableFuture<String> rejected = Input.await(second, String.class).submit(registry);
+        InputException exception = assertThrows(InputException.class, () -> unwrap(rejected));
+        assertEquals(InputOutcome.OVERFLOW, exception.getOutcome());
+
+        // Answering frees room
+        registry.process(first, "a");
+        CompletableFuture<String> accepted = Input.await(first, String.class).submit(registry);
+        registry.process(first, "b");
+        assertEquals("b", accepted.join());
+    }
+
+    @Test
+    void testCancelledOnQuit() {
+        InputRegistry registry = InputRegistry.newRegistry(InputParserRegistry.newRegistry().registerDefaults());
+        UUID id = UUID.randomUUID();
+        AtomicReference<InputOutcome> outcome = new AtomicReference<>();
+
+        Input.await(id, String.class).cancelled(outcome::set).register(registry);
+        assertEquals(1, registry.cancel(id));
+        assertEquals(InputOutcome.CANCELLED, outcome.get());
+    }
+
+    @Test
+    void testThrottle() throws InterruptedException {
+        List<String> throttled = new ArrayList<>();
+        InputRegistry registry = InputRegistry.builder(InputParserRegistry.newRegistry().registerDefaults())
+                .throttle(2, Duration.ofMillis(100))
+                .throttled((id, message) -> throttled.add(message))
+                .build();
+        UUID id = UUID.randomUUID();
+        List<String> handled = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Input.await(id, String.class).then(s -> {
+                handled.add(s);
+            }).register(registry);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            registry.process(id, "spam" + i);
+        }
+        assertEquals(List.of("spam0", "spam1"), handled);
+        // Once per run of dropped messages
+        assertEquals(List.of("spam2"), throttled);
+
+        Thread.sleep(250);
+        registry.process(id, "a");
+        registry.process(id, "b");
+        registry.process(id, "c");
+        assertEquals(List.of("spam0", "spam1", "a", "b"), handled);
+        assertEquals(List.of("spam2", "c"), throttled);
+    }
+
+    @Test
+    void testThrottleReprompt() {
+        List<String> throttled = new ArrayList<>();
+        AtomicInteger mismatched = new AtomicInteger();
+        InputRegistry registry = InputRegistry.builder(InputParserRegistry.newRegistry().registerDefaults())
+                .throttle(1, Duration.ofSeconds(10))
+                .throttled((id, message) -> throttled.add(message))
+                .build();
+        UUID id = UUID.randomUUID();
+        // A single prompt, asked again on every mismatch, so each message empties the player's inputs
+        Runnable[] prompt = new Runnable[1];
+        prompt[0] = () -> Input.await(id, Integer.class).mismatch(s -> {
+            mismatched.incrementAndGet();
+            prompt[0].run();
+        }).register(registry);
+        prompt[0].run();
+
+        for (int i = 0; i < 100; i++) {
+            registry.process(id, "spam" + i);
+        }
+        assertEquals(1, mismatched.get());
+        assertEquals(List.of("spam1"), throttled);
+
+        // Forgotten when the player leaves
+        registry.cancel(id);
+        prompt[0].run();
+        registry.process(id, "again");
+        assertEquals(2, mismatched.get());
+    }
+
+    @Test
+    void testRouting() {
+        InputRegistry registry = InputRegistry.newRegistry(InputParserRegistry.newRegistry().registerDefaults());
+        UUID id = UUID.randomUUID();
+        List<String> handled = new ArrayList<>();
+        Input.await(id, String.class).then(s -> {
+            handled.add("chat " + s);
+        }).register(registry);
+        Input.await(id, String.class).keyword("confirm").then(s -> {
+            handled.add("confirm " + s);
+        }).register(registry);
+        Input.await(id, Integer.class).prefix("!bid").then(i -> {
+            handled.add("bid " + i);
+        }).register(registry);
+        Input.await(id, Integer.class).prefix("!bidmax").then(i -> {
+            handled.add("bidmax " + i);
+        }).register(registry);
+
+        registry.process(id, "!BIDMAX 20");
+        registry.process(id, "confirmed");
+        registry.process(id, "!bid 15");
+        registry.process(id, "Confirm");
+        assertEquals(List.of("bidmax 20", "chat confirmed", "bid 15", "confirm Confirm"), handled);
+        assertEquals(0, registry.cancel(id));
+    }
+
+    @Test
+    void testMultiplex() {
+        AtomicInteger parsed = new AtomicInteger();
+        InputParserRegistry parsers = InputParserRegistry.newRegistry().registerDefaults();
+        parsers.update(Integer.class, s -> {
+            parsed.incrementAndGet();
+            try {
+                return Optional.of(Integer.parseInt(s));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        });
+        InputRegistry registry = InputRegistry.builder(parsers).multiplex().build();
+        UUID id = UUID.randomUUID();
+        List<String> handled = new ArrayList<>();
+        List<String> mismatched = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int index = i;
+            Input.await(id, Integer.class).then(value -> {
+                handled.add("int" + index + " " + value);
+            }).mismatch(mismatched::add).register(registry);
+        }
+        Input.await(id, Duration.class).then(value -> {
+            handled.add("duration " + value.toMinutes());
+        }).register(registry);
+
+        // Passes over the integer inputs, parsing the message as an integer once
+        registry.process(id, "5m");
+        assertEquals(List.of("duration 5"), handled);
+        assertEquals(1, parsed.get());
+
+        registry.process(id, "7");
+        assertEquals(List.of("duration 5", "int0 7"), handled);
+        assertEquals(2, parsed.get());
+
+        // Accepted by none, a mismatch for the oldest input
+        registry.process(id, "nothing");
+        assertEquals(List.of("nothing"), mismatched);
+        assertEquals(3, parsed.get());
+
+        registry.process(id, "8");
+        assertEquals(List.of("duration 5", "int0 7", "int2 8"), handled);
+        assertEquals(0, registry.cancel(id));
+    }
+
+    @Test
+    void testMultiplexSkipsExpired() {
+        InputRegistry registry = InputRegistry.builder(InputParserRegistry.newRegistry().registerDefaults()).multiplex().build();
+        UUID id = UUID.randomUUID();
+        List<String> handled = new ArrayList<>();
+        Input.await(id, Integer.class)
+                .until(Duration.ofMillis(1))
+                .timestamp(Instant.now().minusSeconds(1))
+                .then(value -> {
+                    handled.add("expired " + value);
+                })
+                .expired(s -> handled.add("expired handler " + s))
+                .register(registry);
+        Input.await(id, Integer.class).then(value -> {
+            handled.add("live " + value);
+        }).register(registry);
+
+        registry.process(id, "3");
+        assertEquals(List.of("expired handler 3", "live 3"), handled);
+        assertEquals(0, registry.cancel(id));
+    }
+
+    @Test
+    void testConcurrentRegisterAndProcess() throws InterruptedException {
+        stress(ConcurrentHashMap::new);
+        stress(InputMapFactory.UUID_MAP);
+    }
+
+    /**
+     * Registers and answers inputs of a few players from many threads at once, handlers registering follow-ups
+     * while other threads consume the same queue. No input may be lost and no slot may be left behind.
+     */
+    private static void stress(InputMapFactory factory) throws InterruptedException {
+        AtomicReference<ConcurrentMap<UUID, ?>> map = new AtomicReference<>();
+        InputRegistry registry = InputRegistry.newRegistry(InputParserRegistry.newRegistry().registerDefaults(), new InputMapFactory() {
+            @Override
+            public <V> ConcurrentMap<UUID, V> create() {
+                ConcurrentMap<UUID, V> inputs = factory.create();
+                map.set(inputs);
+                return inputs;
+            }
+        });
+        UUID[] players = {UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        AtomicInteger registered = new AtomicInteger();
+        AtomicInteger handled = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    UUID id = players[random.nextInt(players.length)];
+                    register(registry, id, 2, registered, handled);
+                    registry.process(players[random.nextInt(players.length)], "message");
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Every process call from here on must consume an input, a leftover empty slot would cost an extra call
+        int before = handled.get();
+        int calls = 0;
+        for (UUID id : players) {
+            while (map.get().containsKey(id)) {
+                registry.process(id, "message");
+                calls++;
+            }
+        }
+
+        assertEquals(registered.get(), handled.get());
+        assertEquals(handled.get() - before, calls);
+        assertTrue(map.get().isEmpty());
+    }
+
+    private static void register(InputRegistry registry, UUID id, int followUps, AtomicInteger registered, AtomicInteger handled) {
+        registered.incrementAndGet();
+        Input.await(id, String.class).then(s -> {
+            handled.incrementAndGet();
+            if (followUps > 0) {
+                register(registry, id, followUps - 1, registered, handled);
+            }
+        }).register(registry);
+    }
+
+    private static <T> T unwrap(CompletableFuture<T> future) throws Throwable {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        }
+    }
+
+}
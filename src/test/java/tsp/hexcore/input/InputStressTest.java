@@ -0,0 +1,425 @@
+package tsp.hexcore.input;
+
+import org.junit.jupiter.api.Test;
+import tsp.hexcore.input.flow.InputFlow;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.registry.InputMapFactory;
+import tsp.hexcore.input.registry.InputRegistry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrency stress tests of the input registry: a chat storm of many players on many threads,
+ * and interleavings of two operations on one player, each round on fresh state with the outcome checked by an arbiter.
+ *
+ * @author TheSilentPro (Silent)
+ */
+class InputStressTest {
+
+    private static final InputParserRegistry PARSERS = InputParserRegistry.newRegistry().registerDefaults();
+    private static final int ROUNDS = 5_000;
+
+    @Test
+    void testChatStorm() throws InterruptedException {
+        int threads = 8;
+        int operations = 25_000;
+        UUID[] players = new UUID[2_000];
+        for (int i = 0; i < players.length; i++) {
+            players[i] = UUID.randomUUID();
+        }
+
+        AtomicReference<ConcurrentMap<UUID, ?>> map = new AtomicReference<>();
+        InputRegistry registry = registry(map);
+        AtomicInteger registered = new AtomicInteger();
+        AtomicIntegerArray handled = new AtomicIntegerArray(threads * operations);
+        AtomicIntegerArray cancelled = new AtomicIntegerArray(threads * operations);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < operations; i++) {
+                    UUID id = players[random.nextInt(players.length)];
+                    int action = random.nextInt(100);
+                    if (action < 50) {
+                        int index = registered.getAndIncrement();
+                        Input<String> input = Input.await(id, String.class).then(s -> {
+                            handled.incrementAndGet(index);
+                        });
+                        input.future().whenComplete((value, e) -> {
+                            if (e != null) {
+                                cancelled.incrementAndGet(index);
+                            }
+                        });
+                        input.register(registry);
+                    } else if (action < 99) {
+                        registry.process(id, "message");
+                    } else {
+                        // The player leaves
+                        registry.cancel(id);
+                    }
+                }
+            }));
+        }
+
+        long start = System.nanoTime();
+        workers.forEach(Thread::start);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("Chat storm: %d operations of %d players on %d threads in %d ms, %.0f operations/s%n",
+                threads * operations, players.length, threads, elapsed / 1_000_000, threads * operations * 1e9 / elapsed);
+
+        for (UUID id : players) {
+            while (map.get().containsKey(id)) {
+                registry.process(id, "message");
+            }
+        }
+
+        for (int i = 0; i < registered.get(); i++) {
+            assertEquals(1, handled.get(i) + cancelled.get(i), "Input " + i + " handled " + handled.get(i) + " times, cancelled " + cancelled.get(i) + " times");
+        }
+        assertTrue(map.get().isEmpty());
+    }
+
+    @Test
+    void testRegisterWhileConsumingLast() {
+        // Actor 1 answers the only input, actor 2 registers another. The second one must survive.
+        Map<String, Integer> outcomes = interleave(() -> new Round() {
+            final InputRegistry registry = registry(null);
+            final UUID id = UUID.randomUUID();
+            final AtomicInteger first = new AtomicInteger();
+            final AtomicInteger second = new AtomicInteger();
+
+            {
+                Input.await(id, String.class).then(s -> {
+                    first.incrementAndGet();
+                }).register(registry);
+            }
+
+            @Override
+            public void actor1() {
+                registry.process(id, "a");
+            }
+
+            @Override
+            public void actor2() {
+                Input.await(id, String.class).then(s -> {
+                    second.incrementAndGet();
+                }).register(registry);
+            }
+
+            @Override
+            public String arbiter() {
+                registry.process(id, "b");
+                registry.process(id, "c");
+                return first.get() + ", " + second.get();
+            }
+        });
+
+        assertOutcomes(outcomes, "1, 1");
+    }
+
+    @Test
+    void testRegisterWhileProcessingEmpty() {
+        // Actor 1 answers before or after actor 2 registers, the input is handled once either way.
+        Map<String, Integer> outcomes = interleave(() -> new Round() {
+            final InputRegistry registry = registry(null);
+            final UUID id = UUID.randomUUID();
+            final AtomicInteger handled = new AtomicInteger();
+            int early;
+
+            @Override
+            public void actor1() {
+                registry.process(id, "a");
+                early = handled.get();
+            }
+
+            @Override
+            public void actor2() {
+                Input.await(id, String.class).then(s -> {
+                    handled.incrementAndGet();
+                }).register(registry);
+            }
+
+            @Override
+            public String arbiter() {
+                registry.process(id, "b");
+                return early + ", " + handled.get();
+            }
+        });
+
+        assertOutcomes(outcomes, "0, 1", "1, 1");
+    }
+
+    @Test
+    void testProcessWhileProcessing() {
+        // Two messages race for two inputs, each input is handled once.
+        Map<String, Integer> outcomes = interleave(() -> new Round() {
+            final InputRegistry registry = registry(null);
+            final UUID id = UUID.randomUUID();
+            final AtomicInteger first = new AtomicInteger();
+            final AtomicInteger second = new AtomicInteger();
+
+            {
+                Input.await(id, String.class).then(s -> {
+                    first.incrementAndGet();
+                }).register(registry);
+                Input.await(id, String.class).then(s -> {
+                    second.incrementAndGet();
+                }).register(registry);
+            }
+
+            @Override
+            public void actor1() {
+                registry.process(id, "a");
+            }
+
+            @Override
+            public void actor2() {
+                registry.process(id, "b");
+            }
+
+            @Override
+            public String arbiter() {
+                registry.process(id, "c");
+                return first.get() + ", " + second.get();
+            }
+        });
+
+        assertOutcomes(outcomes, "1, 1");
+    }
+
+    @Test
+    void testCancelWhileProcessing() {
+        // The player leaves while answering, the input is either handled or cancelled.
+        Map<String, Integer> outcomes = interleave(() -> new Round() {
+            final AtomicReference<ConcurrentMap<UUID, ?>> map = new AtomicReference<>();
+            final InputRegistry registry = registry(map);
+            final UUID id = UUID.randomUUID();
+            final AtomicInteger handled = new AtomicInteger();
+            final Input<String> input = Input.await(id, String.class).then(s -> {
+                handled.incrementAndGet();
+            });
+
+            {
+                input.future();
+                input.register(registry);
+            }
+
+            @Override
+            public void actor1() {
+                registry.process(id, "a");
+            }
+
+            @Override
+            public void actor2() {
+                registry.cancel(id);
+            }
+
+            @Override
+            public String arbiter() {
+                return (handled.get() == 1 ? "handled" : "") + (input.getFuture().isCompletedExceptionally() ? "cancelled" : "")
+                        + (map.get().isEmpty() ? "" : ", leaked");
+            }
+        });
+
+        assertOutcomes(outcomes, "handled", "cancelled");
+    }
+
+    @Test
+    void testExpireWhileRegistering() {
+        // Actor 1 expires the only input, actor 2 registers another. The second one must survive.
+        Map<String, Integer> outcomes = interleave(() -> new Round() {
+            final InputRegistry registry = InputRegistry.builder(PARSERS).expiration(Duration.ofNanos(50_000)).build();
+            final UUID id = UUID.randomUUID();
+            final AtomicInteger expired = new AtomicInteger();
+            final AtomicInteger handled = new AtomicInteger();
+
+            {
+                Input.await(id, String.class)
+                        .until(Duration.ofMillis(1))
+                        .timestamp(Instant.now().minusSeconds(1))
+                        .expired(s -> expired.incrementAndGet())
+                        .register(registry);
+                // Past the first wheel slot, so the next tick fires the deadline
+                spin(Duration.ofNanos(100_000));
+            }
+
+            @Override
+            public void actor1() {
+                registry.tick();
+            }
+
+            @Override
+            public void actor2() {
+                Input.await(id, String.class).then(s -> {
+                    handled.incrementAndGet();
+                }).register(registry);
+            }
+
+            @Override
+            public String arbiter() {
+                registry.tick();
+                registry.process(id, "a");
+                return expired.get() + ", " + handled.get();
+            }
+        });
+
+        assertOutcomes(outcomes, "1, 1");
+    }
+
+    @Test
+    void testExpireWhileStarting() {
+        // Actor 1 starts a flow that is due at once, actor 2 expires it. The player's messages must not be swallowed.
+        Map<String, Integer> outcomes = interleave(() -> new Round() {
+            final AtomicReference<ConcurrentMap<UUID, ?>> map = new AtomicReference<>();
+            final InputRegistry registry = InputRegistry.builder(PARSERS)
+                    .map(new InputMapFactory() {
+                        @Override
+                        public <V> ConcurrentMap<UUID, V> create() {
+                            ConcurrentMap<UUID, V> inputs = new ConcurrentHashMap<>();
+                            map.set(inputs);
+                            return inputs;
+                        }
+                    })
+                    .expiration(Duration.ofNanos(1))
+                    .build();
+            final UUID id = UUID.randomUUID();
+            final AtomicInteger expired = new AtomicInteger();
+            final InputFlow flow = InputFlow.builder()
+                    .step("name", String.class).timeout(Duration.ofNanos(1))
+                    .expired(ctx -> expired.incrementAndGet())
+                    .build(PARSERS);
+
+            @Override
+            public void actor1() {
+                registry.start(id, flow);
+            }
+
+            @Override
+            public void actor2() {
+                // Ticks throughout the start, to hit the moment the deadline is scheduled
+                long end = System.nanoTime() + 100_000;
+                while (System.nanoTime() - end < 0) {
+                    registry.tick();
+                }
+            }
+
+            @Override
+            public String arbiter() {
+                spin(Duration.ofNanos(100_000));
+                registry.tick();
+                return expired.get() + (map.get().isEmpty() ? "" : ", leaked");
+            }
+        });
+
+        assertOutcomes(outcomes, "1");
+    }
+
+    private static InputRegistry registry(AtomicReference<ConcurrentMap<UUID, ?>> map) {
+        if (map == null) {
+            return InputRegistry.newRegistry(PARSERS);
+        }
+
+        return InputRegistry.newRegistry(PARSERS, new InputMapFactory() {
+            @Override
+            public <V> ConcurrentMap<UUID, V> create() {
+                ConcurrentMap<UUID, V> inputs = new ConcurrentHashMap<>();
+                map.set(inputs);
+                return inputs;
+            }
+        });
+    }
+
+    private static void spin(Duration duration) {
+        long end = System.nanoTime() + duration.toNanos();
+        while (System.nanoTime() - end < 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void assertOutcomes(Map<String, Integer> outcomes, String... allowed) {
+        assertTrue(Set.of(allowed).containsAll(outcomes.keySet()), "Outcomes: " + outcomes);
+    }
+
+    /**
+     * Two operations racing on fresh state, observed by an arbiter once both are done.
+     */
+    private interface Round {
+
+        void actor1();
+
+        void actor2();
+
+        String arbiter();
+
+    }
+
+    /**
+     * Runs rounds of two actors on two threads. The actors of a round are released together by a barrier,
+     * the arbiter runs after both finished.
+     *
+     * @return How often each outcome was observed.
+     */
+    private static Map<String, Integer> interleave(Supplier<Round> setup) {
+        Round[] rounds = new Round[ROUNDS];
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread other = new Thread(() -> {
+            try {
+                for (int i = 0; i < ROUNDS; i++) {
+                    barrier.await();
+                    rounds[i].actor2();
+                    barrier.await();
+                }
+            } catch (InterruptedException | BrokenBarrierException e) {
+                failure.compareAndSet(null, e);
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+                barrier.reset();
+            }
+        });
+        other.start();
+
+        Map<String, Integer> outcomes = new TreeMap<>();
+        try {
+            for (int i = 0; i < ROUNDS; i++) {
+                rounds[i] = setup.get();
+                barrier.await();
+                rounds[i].actor1();
+                barrier.await();
+                outcomes.merge(rounds[i].arbiter(), 1, Integer::sum);
+                rounds[i] = null;
+            }
+            other.join();
+        } catch (InterruptedException | BrokenBarrierException e) {
+            failure.compareAndSet(null, e);
+        }
+
+        if (failure.get() != null) {
+            fail(failure.get());
+        }
+        return outcomes;
+    }
+
+}
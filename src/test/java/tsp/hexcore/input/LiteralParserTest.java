@@ -0,0 +1,93 @@
+package tsp.hexcore.input;
+
+import org.bukkit.Material;
+import org.junit.jupiter.api.Test;
+import tsp.hexcore.input.parser.InputParserRegistry;
+import tsp.hexcore.input.parser.LiteralParser;
+
+import java.time.DayOfWeek;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheSilentPro (Silent)
+ */
+class LiteralParserTest {
+
+    @Test
+    void testChoicesWithAliases() {
+        LiteralParser<Integer> parser = LiteralParser.<Integer>builder()
+                .add(1, "one", "first")
+                .add(2, "two", "second")
+                .add(10, "ten")
+                .build();
+
+        assertEquals(5, parser.size());
+        assertEquals(1, parser.parse("one").orElseThrow());
+        assertEquals(1, parser.parse("FIRST").orElseThrow());
+        assertEquals(2, parser.parse("Second").orElseThrow());
+        assertEquals(10, parser.parse("tEn").orElseThrow());
+        // Prefixes and extensions of words are not words
+        assertFalse(parser.parse("on").isPresent());
+        assertFalse(parser.parse("ones").isPresent());
+        assertFalse(parser.parse("").isPresent());
+        assertEquals(Optional.of(2), parser.parse("pick two now", 5, 8));
+    }
+
+    @Test
+    void testConflictingWords() {
+        LiteralParser.Builder<String> builder = LiteralParser.<String>builder().add("a", "word");
+
+        assertThrows(IllegalArgumentException.class, () -> builder.add("b", "WORD"));
+        assertThrows(IllegalArgumentException.class, () -> builder.add("b", ""));
+        // The same word for the same value is allowed
+        assertEquals("a", builder.add("a", "Word").build().parse("word").orElseThrow());
+    }
+
+    @Test
+    void testChoices() {
+        LiteralParser<String> parser = LiteralParser.ofChoices("Accept", "Decline");
+
+        assertEquals("Accept", parser.parse("accept").orElseThrow());
+        assertEquals("Decline", parser.parse("DECLINE").orElseThrow());
+        assertFalse(parser.parse("maybe").isPresent());
+    }
+
+    @Test
+    void testEnums() {
+        LiteralParser<DayOfWeek> parser = LiteralParser.ofEnum(DayOfWeek.class);
+
+        assertEquals(DayOfWeek.MONDAY, parser.parse("monday").orElseThrow());
+        assertEquals(DayOfWeek.SUNDAY, parser.parse("Sunday").orElseThrow());
+        assertFalse(parser.parse("mon").isPresent());
+        // Enums without a registered parser are resolved to one
+        assertEquals(DayOfWeek.FRIDAY, InputParserRegistry.newRegistry().find(DayOfWeek.class).orElseThrow().parse("FRIDAY").orElseThrow());
+    }
+
+    @Test
+    void testMaterials() {
+        LiteralParser<Material> parser = LiteralParser.ofMaterial();
+
+        assertEquals(Material.DIAMOND_SWORD, parser.parse("diamond_sword").orElseThrow());
+        assertEquals(Material.DIAMOND_SWORD, parser.parse("Diamond Sword").orElseThrow());
+        assertEquals(Material.DIAMOND_SWORD, parser.parse("minecraft:diamond_sword").orElseThrow());
+        assertFalse(parser.parse("legacy_stone").isPresent());
+        assertSame(parser, LiteralParser.ofMaterial());
+        assertEquals(Material.STONE, InputParserRegistry.newRegistry().registerDefaults().find(Material.class).orElseThrow().parse("stone").orElseThrow());
+    }
+
+    @Test
+    void testBooleans() {
+        InputParserRegistry registry = InputParserRegistry.newRegistry().registerDefaults();
+
+        for (String word : new String[] {"true", "YES", "On"}) {
+            assertEquals(true, registry.find(Boolean.class).orElseThrow().parse(word).orElseThrow());
+        }
+        for (String word : new String[] {"false", "no", "OFF"}) {
+            assertEquals(false, registry.find(Boolean.class).orElseThrow().parse(word).orElseThrow());
+        }
+        assertFalse(registry.find(Boolean.class).orElseThrow().parse("maybe").isPresent());
+    }
+
+}
@@ -3,6 +3,8 @@ package tsp.hexcore.input;
 import org.junit.jupiter.api.Test;
 import tsp.hexcore.util.NumberParser;
 
+import java.util.Locale;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -71,4 +73,50 @@ class NumberParserTest {
         assertFalse(NumberParser.parseByte("").isPresent()); // Empty string
         assertFalse(NumberParser.parseByte(null).isPresent()); // Null input
     }
-}
\ No newline at end of file
+
+    @Test
+    void testParseBounds() {
+        // Overflow is a mismatch, not an exception
+        assertEquals(Integer.MAX_VALUE, NumberParser.parseInteger("2147483647").orElseThrow());
+        assertEquals(Integer.MIN_VALUE, NumberParser.parseInteger("-2147483648").orElseThrow());
+        assertFalse(NumberParser.parseInteger("2147483648").isPresent());
+        assertEquals(Long.MIN_VALUE, NumberParser.parseLong("-9223372036854775808").orElseThrow());
+        assertFalse(NumberParser.parseLong("9223372036854775808").isPresent());
+        assertFalse(NumberParser.parseByte("-129").isPresent());
+        assertFalse(NumberParser.parseInteger("+").isPresent());
+        assertFalse(NumberParser.parseInteger("-").isPresent());
+    }
+
+    @Test
+    void testParseMatchesJdk() {
+        // Same accepted forms as the JDK parse methods
+        assertEquals(12, NumberParser.parseInteger("+12").orElseThrow());
+        assertEquals(12, NumberParser.parseInteger("\u0661\u0662").orElseThrow()); // Arabic-Indic digits
+        assertEquals(12.0, NumberParser.parseDouble(" 12 ").orElseThrow());
+        assertEquals(3.0, NumberParser.parseDouble("0x1.8p1").orElseThrow());
+        assertEquals(1.0f, NumberParser.parseFloat("1f").orElseThrow());
+        assertEquals(0.5, NumberParser.parseDouble(".5").orElseThrow());
+        assertTrue(NumberParser.parseDouble("-Infinity").isPresent());
+        assertTrue(NumberParser.parseDouble("NaN").isPresent());
+        assertFalse(NumberParser.parseDouble("1e").isPresent());
+        assertFalse(NumberParser.parseDouble("0x1").isPresent());
+        assertFalse(NumberParser.parseDouble(".").isPresent());
+        assertFalse(NumberParser.parseDouble("1.2.3").isPresent());
+        assertFalse(NumberParser.parseFloat("1fx").isPresent());
+    }
+
+    @Test
+    void testParseLocale() {
+        assertEquals(1234.5, NumberParser.parse("1.234,5", Locale.GERMANY).orElseThrow().doubleValue());
+        assertEquals(1234.5, NumberParser.parse("1,234.5", Locale.US).orElseThrow().doubleValue());
+        assertFalse(NumberParser.parse("abc", Locale.GERMANY).isPresent());
+    }
+
+    @Test
+    void testParseUnavailableLocale() {
+        // Narrowed to the language, or else the root locale
+        assertEquals(1234.5, NumberParser.parse("1.234,5", Locale.of("de", "XX")).orElseThrow().doubleValue());
+        assertEquals(1234.5, NumberParser.parse("1,234.5", Locale.of("zz", "ZZ", "spam")).orElseThrow().doubleValue());
+    }
+
+}
@@ -0,0 +1,121 @@
+package tsp.hexcore.input;
+
+import org.junit.jupiter.api.Test;
+import tsp.hexcore.util.UuidMap;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author TheSilentPro (Silent)
+ */
+class UuidMapTest {
+
+    @Test
+    void testBasicOperations() {
+        ConcurrentMap<UUID, String> map = new UuidMap<>();
+        UUID id = UUID.randomUUID();
+
+        assertNull(map.get(id));
+        assertNull(map.put(id, "a"));
+        assertEquals("a", map.get(id));
+        assertEquals("a", map.put(id, "b"));
+        assertEquals("b", map.putIfAbsent(id, "c"));
+        assertFalse(map.remove(id, "c"));
+        assertTrue(map.replace(id, "b", "d"));
+        assertEquals("d", map.computeIfAbsent(id, k -> "e"));
+        assertEquals(1, map.size());
+        assertEquals(Map.of(id, "d"), new HashMap<>(map));
+
+        assertTrue(map.remove(id, "d"));
+        assertNull(map.get(id));
+        assertTrue(map.isEmpty());
+        assertEquals("f", map.computeIfAbsent(id, k -> "f"));
+        assertEquals("f", map.get(id));
+        assertNull(map.get("not a uuid"));
+    }
+
+    @Test
+    void testMatchesHashMap() {
+        ConcurrentMap<UUID, Integer> map = new UuidMap<>();
+        Map<UUID, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        UUID[] keys = new UUID[2_000];
+        for (int i = 0; i < keys.length; i++) {
+            // Sequential keys stress the hash mixing
+            keys[i] = i % 2 == 0 ? UUID.randomUUID() : new UUID(0, i);
+        }
+
+        for (int i = 0; i < 200_000; i++) {
+            UUID key = keys[random.nextInt(keys.length)];
+            int value = random.nextInt(10);
+            switch (random.nextInt(4)) {
+                case 0 -> assertEquals(expected.put(key, value), map.put(key, value));
+                case 1 -> assertEquals(expected.remove(key), map.remove(key));
+                case 2 -> assertEquals(expected.putIfAbsent(key, value), map.putIfAbsent(key, value));
+                default -> assertEquals(expected.get(key), map.get(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected, new HashMap<>(map));
+
+        map.entrySet().removeIf(entry -> entry.getValue() % 2 == 0);
+        expected.entrySet().removeIf(entry -> entry.getValue() % 2 == 0);
+        assertEquals(expected, new HashMap<>(map));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void testConcurrentReadsDuringWrites() throws InterruptedException {
+        ConcurrentMap<UUID, UUID> map = new UuidMap<>();
+        UUID[] stable = new UUID[1_000];
+        for (int i = 0; i < stable.length; i++) {
+            stable[i] = UUID.randomUUID();
+            map.put(stable[i], stable[i]);
+        }
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicInteger errors = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            // Churn forces tombstones and rehashes while readers probe
+            threads.add(new Thread(() -> {
+                while (running.get()) {
+                    UUID id = UUID.randomUUID();
+                    map.put(id, id);
+                    if (!id.equals(map.get(id))) {
+                        errors.incrementAndGet();
+                    }
+                    map.remove(id);
+                }
+            }));
+            threads.add(new Thread(() -> {
+                while (running.get()) {
+                    for (UUID id : stable) {
+                        if (!id.equals(map.get(id))) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        Thread.sleep(500);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, errors.get());
+        assertEquals(stable.length, map.size());
+    }
+
+}